@@ -0,0 +1,159 @@
+package org.tclover.montecarlo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tclover.montecarlo.aggregator.BooleanMeanAggregator;
+import org.tclover.montecarlo.aggregator.DoubleSummaryAggregator;
+import org.tclover.montecarlo.aggregator.MeanVarianceAggregator;
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.MutationType;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-value accumulate cost (one at a time and in batches) and combine cost of every aggregator.
+ * Inputs are generated up front so that only the aggregator is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AggregatorBenchmark {
+    private static final int BATCH = 1024;
+
+    private final double[] doubles = new double[BATCH];
+    private final boolean[] booleans = new boolean[BATCH];
+    private final MutationType[] mutations = new MutationType[BATCH];
+
+    private MeanVarianceAggregator meanVariance;
+    private MeanVarianceAggregator meanVarianceOther;
+    private DoubleSummaryAggregator doubleSummary;
+    private DoubleSummaryAggregator doubleSummaryOther;
+    private BooleanMeanAggregator booleanMean;
+    private BooleanMeanAggregator booleanMeanOther;
+    private MutationStatisticsAggregator mutationStatistics;
+    private MutationStatisticsAggregator mutationStatisticsOther;
+
+    @Setup(Level.Trial)
+    public void generateInputs() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        MutationType[] types = MutationType.values();
+        for (int i = 0; i < BATCH; i++) {
+            doubles[i] = rnd.nextDouble();
+            booleans[i] = rnd.nextBoolean();
+            mutations[i] = types[rnd.nextInt(types.length)];
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createAggregators() {
+        meanVariance = new MeanVarianceAggregator();
+        meanVarianceOther = new MeanVarianceAggregator();
+        meanVarianceOther.accumulateBatch(doubles, BATCH);
+        doubleSummary = new DoubleSummaryAggregator();
+        doubleSummaryOther = new DoubleSummaryAggregator();
+        doubleSummaryOther.accumulateBatch(doubles, BATCH);
+        booleanMean = new BooleanMeanAggregator();
+        booleanMeanOther = new BooleanMeanAggregator();
+        booleanMeanOther.accumulateBatch(booleans, BATCH);
+        mutationStatistics = new MutationStatisticsAggregator();
+        mutationStatisticsOther = new MutationStatisticsAggregator();
+        for (MutationType type : mutations) {
+            mutationStatisticsOther.accumulate(type);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public MeanVarianceAggregator meanVarianceAccumulate() {
+        for (double value : doubles) {
+            meanVariance.accumulateDouble(value);
+        }
+        return meanVariance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public MeanVarianceAggregator meanVarianceAccumulateBatch() {
+        meanVariance.accumulateBatch(doubles, BATCH);
+        return meanVariance;
+    }
+
+    @Benchmark
+    public MeanVarianceAggregator meanVarianceCombine() {
+        meanVariance.combine(meanVarianceOther);
+        return meanVariance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public DoubleSummaryAggregator doubleSummaryAccumulate() {
+        for (double value : doubles) {
+            doubleSummary.accumulateDouble(value);
+        }
+        return doubleSummary;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public DoubleSummaryAggregator doubleSummaryAccumulateBatch() {
+        doubleSummary.accumulateBatch(doubles, BATCH);
+        return doubleSummary;
+    }
+
+    @Benchmark
+    public DoubleSummaryAggregator doubleSummaryCombine() {
+        doubleSummary.combine(doubleSummaryOther);
+        return doubleSummary;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BooleanMeanAggregator booleanMeanAccumulate() {
+        for (boolean value : booleans) {
+            booleanMean.accumulateBoolean(value);
+        }
+        return booleanMean;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BooleanMeanAggregator booleanMeanAccumulateBatch() {
+        booleanMean.accumulateBatch(booleans, BATCH);
+        return booleanMean;
+    }
+
+    @Benchmark
+    public BooleanMeanAggregator booleanMeanCombine() {
+        booleanMean.combine(booleanMeanOther);
+        return booleanMean;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public MutationStatisticsAggregator mutationStatisticsAccumulate() {
+        for (MutationType type : mutations) {
+            mutationStatistics.accumulate(type);
+        }
+        return mutationStatistics;
+    }
+
+    @Benchmark
+    public MutationStatisticsAggregator mutationStatisticsCombine() {
+        mutationStatistics.combine(mutationStatisticsOther);
+        return mutationStatistics;
+    }
+}
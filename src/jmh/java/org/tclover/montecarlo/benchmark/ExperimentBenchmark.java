@@ -0,0 +1,121 @@
+package org.tclover.montecarlo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.experiment.ArtificialityDetectionExperiment;
+import org.tclover.montecarlo.experiment.BirthdayParadoxExperiment;
+import org.tclover.montecarlo.experiment.CoinFlipExperiment;
+import org.tclover.montecarlo.experiment.PiEstimationExperiment;
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-trial cost of every experiment, through the single-trial call and, for primitive experiments,
+ * through the batch path the simulator uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExperimentBenchmark {
+    private static final int BATCH = 1024;
+
+    private final PiEstimationExperiment pi = new PiEstimationExperiment();
+    private final CoinFlipExperiment coin = new CoinFlipExperiment(0.5);
+    private final BirthdayParadoxExperiment birthday = new BirthdayParadoxExperiment(23, 365);
+    private final ArtificialityDetectionExperiment artificiality =
+            new ArtificialityDetectionExperiment(0.25, 0.70, 0.05);
+    private final double[] doubles = new double[BATCH];
+    private final boolean[] booleans = new boolean[BATCH];
+    private SplittableRandom rnd;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        rnd = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public double piTrial() {
+        return pi.runTrialAsDouble(rnd);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] piBatch() {
+        pi.runBatch(rnd, doubles, BATCH);
+        return doubles;
+    }
+
+    @Benchmark
+    public boolean coinTrial() {
+        return coin.runTrialAsBoolean(rnd);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean[] coinBatch() {
+        coin.runBatch(rnd, booleans, BATCH);
+        return booleans;
+    }
+
+    @Benchmark
+    public double birthdayTrial() {
+        return birthday.runTrialAsDouble(rnd);
+    }
+
+    @Benchmark
+    public double artificialityTrial() {
+        return artificiality.runTrialAsDouble(rnd);
+    }
+
+    /**
+     * Mutation trials on the bundled genomes; each genome is loaded once per fork.
+     */
+    @State(Scope.Thread)
+    public static class Mutation {
+        @Param({"sars", "oc43"})
+        public String genome;
+
+        RealisticMutationExperiment experiment;
+        SplittableRandom rnd;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            experiment = new RealisticMutationExperiment(Genomes.load(genome));
+        }
+
+        @Setup(Level.Iteration)
+        public void reseed() {
+            rnd = new SplittableRandom(42);
+        }
+    }
+
+    @Benchmark
+    public MutationType mutationTrial(Mutation state) {
+        return state.experiment.runTrial(state.rnd);
+    }
+
+    @Benchmark
+    public void objectTrial(Blackhole bh) {
+        // Boxed path used when a primitive experiment runs with a generic aggregator
+        bh.consume(pi.runTrial(rnd));
+    }
+}
@@ -0,0 +1,22 @@
+package org.tclover.montecarlo.benchmark;
+
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+import java.io.IOException;
+
+/**
+ * The genomes bundled with the simulator, by benchmark parameter name.
+ */
+final class Genomes {
+    private Genomes() {
+    }
+
+    static String load(String name) throws IOException {
+        return switch (name) {
+            case "sars" -> RealisticMutationExperiment.loadExampleSarsRNA();
+            case "oc43" -> RealisticMutationExperiment.loadOC43();
+            case "spike" -> RealisticMutationExperiment.loadExampleSpikeRNA();
+            default -> throw new IllegalArgumentException("Unknown genome: " + name);
+        };
+    }
+}
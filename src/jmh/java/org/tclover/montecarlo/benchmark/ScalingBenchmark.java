@@ -0,0 +1,93 @@
+package org.tclover.montecarlo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tclover.montecarlo.aggregator.MeanVarianceAggregator;
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloEngine;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.experiment.PiEstimationExperiment;
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end simulation time on an engine with {@code threads} workers. Override the thread counts
+ * with {@code -p threads=1,2,4,8,16} to cover the machine's cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+    private static final long PI_TRIALS = 20_000_000L;
+    private static final long MUTATION_TRIALS = 2_000_000L;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private MonteCarloEngine engine;
+    private MonteCarloSimulator<Double> pi;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new MonteCarloEngine(threads);
+        pi = new MonteCarloSimulator<>(new PiEstimationExperiment(), PI_TRIALS, 42, threads)
+                .setEngine(engine)
+                .setProgressCallback(progress -> {
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public MonteCarloResult<MeanVarianceSummary> pi() throws InterruptedException {
+        return pi.run(new MeanVarianceAggregator());
+    }
+
+    /**
+     * Mutation simulation on one of the bundled genomes, sharing the benchmark's engine.
+     */
+    @State(Scope.Benchmark)
+    public static class Mutation {
+        @Param({"sars", "oc43"})
+        public String genome;
+
+        MonteCarloSimulator<MutationType> simulator;
+
+        @Setup(Level.Trial)
+        public void setUp(ScalingBenchmark benchmark) throws IOException {
+            simulator = new MonteCarloSimulator<>(new RealisticMutationExperiment(Genomes.load(genome)),
+                    MUTATION_TRIALS, 42, benchmark.threads)
+                    .setEngine(benchmark.engine)
+                    .setProgressCallback(progress -> {
+                    });
+        }
+    }
+
+    @Benchmark
+    public MonteCarloResult<CategoryCounts<MutationType>> mutation(Mutation state) throws InterruptedException {
+        return state.simulator.run(new MutationStatisticsAggregator());
+    }
+}
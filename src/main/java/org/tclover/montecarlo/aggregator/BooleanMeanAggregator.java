@@ -1,9 +1,14 @@
 package org.tclover.montecarlo.aggregator;
 
+import org.tclover.montecarlo.core.BooleanMonteCarloAggregator;
 import org.tclover.montecarlo.core.MeanVarianceSummary;
 import org.tclover.montecarlo.core.MonteCarloAggregator;
 
-public class BooleanMeanAggregator implements MonteCarloAggregator<Boolean, MeanVarianceSummary> {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class BooleanMeanAggregator implements BooleanMonteCarloAggregator<MeanVarianceSummary> {
     private long count = 0;
     private long sum = 0;
 
@@ -11,11 +16,21 @@ public class BooleanMeanAggregator implements MonteCarloAggregator<Boolean, Mean
     }
 
     @Override
-    public void accumulate(Boolean value) {
+    public void accumulateBoolean(boolean value) {
         count++;
         if (value) sum++;
     }
 
+    @Override
+    public void accumulateBatch(boolean[] values, int length) {
+        long hits = 0;
+        for (int i = 0; i < length; i++) {
+            if (values[i]) hits++;
+        }
+        count += length;
+        sum += hits;
+    }
+
     @Override
     public void combine(MonteCarloAggregator<Boolean, MeanVarianceSummary> other) {
         if (other instanceof BooleanMeanAggregator o) {
@@ -32,4 +47,16 @@ public class BooleanMeanAggregator implements MonteCarloAggregator<Boolean, Mean
         double variance = mean * (1.0 - mean); // Bernoulli variance
         return new MeanVarianceSummary(mean, variance);
     }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        count = in.readLong();
+        sum = in.readLong();
+    }
 }
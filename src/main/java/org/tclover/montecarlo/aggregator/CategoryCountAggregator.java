@@ -0,0 +1,117 @@
+package org.tclover.montecarlo.aggregator;
+
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Counts outcomes per category in a primitive {@code long[]}, without boxing or allocating per trial.
+ * <p>
+ * Categories are either the constants of an enum, indexed by ordinal, or the integers
+ * {@code 0..categories-1}; int-coded experiments can also feed {@link #accumulateCategory(int)}
+ * directly. Each chunk owns its aggregator, so the counters are only ever written by one worker; they
+ * are padded by a cache line on both sides so that counters of aggregators allocated next to each other
+ * by different workers never share a line. {@link #combine} adds the counters of two aggregators.
+ *
+ * @param <K> the category type
+ */
+public class CategoryCountAggregator<K> implements MonteCarloAggregator<K, CategoryCounts<K>> {
+    private static final int PAD = 8;
+
+    private final List<K> categories;
+    private final ToIntFunction<? super K> index;
+    private final long[] counts;
+
+    /**
+     * @param categories the categories in order
+     * @param index      maps an outcome to its position in {@code categories}
+     */
+    public CategoryCountAggregator(List<K> categories, ToIntFunction<? super K> index) {
+        this.categories = List.copyOf(categories);
+        this.index = index;
+        this.counts = new long[PAD + categories.size() + PAD];
+    }
+
+    /**
+     * Counts the constants of {@code type}.
+     */
+    public static <E extends Enum<E>> CategoryCountAggregator<E> forEnum(Class<E> type) {
+        return new CategoryCountAggregator<>(List.of(type.getEnumConstants()), Enum::ordinal);
+    }
+
+    /**
+     * Counts the integers {@code 0..categories-1}.
+     */
+    public static CategoryCountAggregator<Integer> forIntegers(int categories) {
+        return new CategoryCountAggregator<>(
+                IntStream.range(0, categories).boxed().collect(Collectors.toList()), Integer::intValue);
+    }
+
+    @Override
+    public void accumulate(K value) {
+        accumulateCategory(index.applyAsInt(value));
+    }
+
+    /**
+     * Counts one outcome of the category at position {@code category}.
+     */
+    public void accumulateCategory(int category) {
+        counts[PAD + Objects.checkIndex(category, categories.size())]++;
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<K, CategoryCounts<K>> other) {
+        if (other instanceof CategoryCountAggregator<K> o && o.categories.equals(categories)) {
+            for (int i = PAD; i < PAD + categories.size(); i++) {
+                counts[i] += o.counts[i];
+            }
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public CategoryCounts<K> finish(long totalSamples) {
+        long[] result = new long[categories.size()];
+        System.arraycopy(counts, PAD, result, 0, result.length);
+        return new CategoryCounts<>(categories, result);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            out.writeUTF(name(categories.get(i)));
+            out.writeLong(counts[PAD + i]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int size = in.readInt();
+        for (int k = 0; k < size; k++) {
+            String name = in.readUTF();
+            long count = in.readLong();
+            int i = 0;
+            while (i < categories.size() && !name(categories.get(i)).equals(name)) {
+                i++;
+            }
+            if (i == categories.size()) {
+                throw new IOException("Unknown category " + name);
+            }
+            counts[PAD + i] = count;
+        }
+    }
+
+    private static String name(Object category) {
+        return category instanceof Enum<?> e ? e.name() : String.valueOf(category);
+    }
+}
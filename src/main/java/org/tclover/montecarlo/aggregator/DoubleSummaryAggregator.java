@@ -1,20 +1,39 @@
 package org.tclover.montecarlo.aggregator;
 
+import org.tclover.montecarlo.core.DoubleMonteCarloAggregator;
 import org.tclover.montecarlo.core.MeanVarianceSummary;
 import org.tclover.montecarlo.core.MonteCarloAggregator;
 
-public class DoubleSummaryAggregator implements MonteCarloAggregator<Double, MeanVarianceSummary> {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class DoubleSummaryAggregator implements DoubleMonteCarloAggregator<MeanVarianceSummary> {
     private double sum = 0;
     private double sumSq = 0;
     private long count = 0;
 
     @Override
-    public void accumulate(Double value) {
+    public void accumulateDouble(double value) {
         sum += value;
         sumSq += value * value;
         count++;
     }
 
+    @Override
+    public void accumulateBatch(double[] values, int length) {
+        double s = sum;
+        double sq = sumSq;
+        for (int i = 0; i < length; i++) {
+            double v = values[i];
+            s += v;
+            sq += v * v;
+        }
+        sum = s;
+        sumSq = sq;
+        count += length;
+    }
+
     @Override
     public void combine(MonteCarloAggregator<Double, MeanVarianceSummary> other) {
         if (other instanceof DoubleSummaryAggregator o) {
@@ -30,4 +49,18 @@ public class DoubleSummaryAggregator implements MonteCarloAggregator<Double, Mea
         double variance = (sumSq / count) - (mean * mean);
         return new MeanVarianceSummary(mean, variance);
     }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(sum);
+        out.writeDouble(sumSq);
+        out.writeLong(count);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        sum = in.readDouble();
+        sumSq = in.readDouble();
+        count = in.readLong();
+    }
 }
@@ -0,0 +1,104 @@
+package org.tclover.montecarlo.aggregator;
+
+import org.tclover.montecarlo.core.DoubleMonteCarloAggregator;
+import org.tclover.montecarlo.core.HistogramSummary;
+import org.tclover.montecarlo.core.LogHistogram;
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Aggregates numeric outcomes into their mean, variance and a fixed-memory {@link LogHistogram}, so
+ * quantiles and tail probabilities can be read from the result without storing the samples. NaN
+ * outcomes are skipped, as by the histogram, so that the mean, variance and quantiles describe the same
+ * samples.
+ */
+public class HistogramAggregator implements DoubleMonteCarloAggregator<HistogramSummary> {
+    private final LogHistogram histogram;
+    private double sum = 0.0;
+    private double sumSq = 0.0;
+    private long count = 0;
+
+    public HistogramAggregator() {
+        this.histogram = new LogHistogram();
+    }
+
+    /**
+     * Uses a histogram with the given bucket layout; see {@link LogHistogram#LogHistogram(int, int, int)}.
+     * Run it through a factory such as {@code () -> new HistogramAggregator(10, -8, 8)}.
+     */
+    public HistogramAggregator(int precisionBits, int minExponent, int maxExponent) {
+        this.histogram = new LogHistogram(precisionBits, minExponent, maxExponent);
+    }
+
+    @Override
+    public void accumulateDouble(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        histogram.record(value);
+        sum += value;
+        sumSq += value * value;
+        count++;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int length) {
+        double s = sum;
+        double sq = sumSq;
+        long n = count;
+        for (int i = 0; i < length; i++) {
+            double v = values[i];
+            if (Double.isNaN(v)) {
+                continue;
+            }
+            histogram.record(v);
+            s += v;
+            sq += v * v;
+            n++;
+        }
+        sum = s;
+        sumSq = sq;
+        count = n;
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<Double, HistogramSummary> other) {
+        if (other instanceof HistogramAggregator o) {
+            histogram.merge(o.histogram);
+            this.sum += o.sum;
+            this.sumSq += o.sumSq;
+            this.count += o.count;
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public HistogramSummary finish(long totalSamples) {
+        if (count == 0) {
+            return new HistogramSummary(0.0, 0.0, histogram.copy());
+        }
+        double mean = sum / count;
+        double variance = Math.max(sumSq / count - mean * mean, 0.0);
+        return new HistogramSummary(mean, variance, histogram.copy());
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(sum);
+        out.writeDouble(sumSq);
+        out.writeLong(count);
+        histogram.writeTo(out);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        sum = in.readDouble();
+        sumSq = in.readDouble();
+        count = in.readLong();
+        histogram.readFrom(in);
+    }
+}
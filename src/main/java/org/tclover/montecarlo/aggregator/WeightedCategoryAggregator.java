@@ -0,0 +1,90 @@
+package org.tclover.montecarlo.aggregator;
+
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.WeightedProportions;
+import org.tclover.montecarlo.core.WeightedSample;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Importance sampling counterpart of a category counter: sums the likelihood ratios of the trials
+ * that ended in each category.
+ * <p>
+ * Run it through a factory such as {@code () -> new WeightedCategoryAggregator<>(Type.class)}, or use a
+ * subclass with a no-arg constructor such as {@link WeightedMutationStatisticsAggregator}.
+ *
+ * @param <K> the category type
+ */
+public class WeightedCategoryAggregator<K extends Enum<K>>
+        implements MonteCarloAggregator<WeightedSample<K>, WeightedProportions<K>> {
+    private final Class<K> type;
+    private final double[] weightSums;
+    private final double[] weightSqSums;
+    private long count = 0;
+
+    public WeightedCategoryAggregator(Class<K> type) {
+        this.type = type;
+        int categories = type.getEnumConstants().length;
+        this.weightSums = new double[categories];
+        this.weightSqSums = new double[categories];
+    }
+
+    @Override
+    public void accumulate(WeightedSample<K> value) {
+        double w = value.getWeight();
+        int category = value.getValue().ordinal();
+        weightSums[category] += w;
+        weightSqSums[category] += w * w;
+        count++;
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<WeightedSample<K>, WeightedProportions<K>> other) {
+        if (other instanceof WeightedCategoryAggregator<K> o && o.type == type) {
+            for (int i = 0; i < weightSums.length; i++) {
+                weightSums[i] += o.weightSums[i];
+                weightSqSums[i] += o.weightSqSums[i];
+            }
+            count += o.count;
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public WeightedProportions<K> finish(long totalSamples) {
+        double weightSum = 0.0;
+        double weightSqSum = 0.0;
+        for (int i = 0; i < weightSums.length; i++) {
+            weightSum += weightSums[i];
+            weightSqSum += weightSqSums[i];
+        }
+        double ess = weightSqSum == 0.0 ? 0.0 : weightSum * weightSum / weightSqSum;
+        return new WeightedProportions<>(type, count, weightSums.clone(), weightSqSums.clone(), ess);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeInt(weightSums.length);
+        for (int i = 0; i < weightSums.length; i++) {
+            out.writeDouble(weightSums[i]);
+            out.writeDouble(weightSqSums[i]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        count = in.readLong();
+        int categories = in.readInt();
+        if (categories != weightSums.length) {
+            throw new IOException("Expected " + weightSums.length + " categories, found " + categories);
+        }
+        for (int i = 0; i < categories; i++) {
+            weightSums[i] = in.readDouble();
+            weightSqSums[i] = in.readDouble();
+        }
+    }
+}
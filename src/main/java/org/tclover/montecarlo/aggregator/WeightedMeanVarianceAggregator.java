@@ -0,0 +1,76 @@
+package org.tclover.montecarlo.aggregator;
+
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.WeightedSample;
+import org.tclover.montecarlo.core.WeightedSummary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Aggregates importance-sampled outcomes into the mean and variance of {@code weight * outcome}.
+ * <p>
+ * The result is a {@link WeightedSummary} that also carries the effective sample size of the weights.
+ */
+public class WeightedMeanVarianceAggregator implements MonteCarloAggregator<WeightedSample<Double>, MeanVarianceSummary> {
+    private double sum = 0.0;
+    private double sumSq = 0.0;
+    private double weightSum = 0.0;
+    private double weightSqSum = 0.0;
+    private long count = 0;
+
+    @Override
+    public void accumulate(WeightedSample<Double> value) {
+        double w = value.getWeight();
+        double x = w * value.getValue();
+        sum += x;
+        sumSq += x * x;
+        weightSum += w;
+        weightSqSum += w * w;
+        count++;
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<WeightedSample<Double>, MeanVarianceSummary> other) {
+        if (other instanceof WeightedMeanVarianceAggregator o) {
+            this.sum += o.sum;
+            this.sumSq += o.sumSq;
+            this.weightSum += o.weightSum;
+            this.weightSqSum += o.weightSqSum;
+            this.count += o.count;
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public MeanVarianceSummary finish(long totalSamples) {
+        if (count == 0) {
+            return new WeightedSummary(0.0, 0.0, 0.0);
+        }
+        double mean = sum / count;
+        double variance = Math.max(sumSq / count - mean * mean, 0.0);
+        double ess = weightSqSum == 0.0 ? 0.0 : weightSum * weightSum / weightSqSum;
+        return new WeightedSummary(mean, variance, ess);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(sum);
+        out.writeDouble(sumSq);
+        out.writeDouble(weightSum);
+        out.writeDouble(weightSqSum);
+        out.writeLong(count);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        sum = in.readDouble();
+        sumSq = in.readDouble();
+        weightSum = in.readDouble();
+        weightSqSum = in.readDouble();
+        count = in.readLong();
+    }
+}
@@ -0,0 +1,13 @@
+package org.tclover.montecarlo.aggregator;
+
+import org.tclover.montecarlo.core.MutationType;
+
+/**
+ * Weighted mutation type frequencies of an importance-sampled mutation experiment.
+ */
+public class WeightedMutationStatisticsAggregator extends WeightedCategoryAggregator<MutationType> {
+
+    public WeightedMutationStatisticsAggregator() {
+        super(MutationType.class);
+    }
+}
@@ -0,0 +1,19 @@
+package org.tclover.montecarlo.core;
+
+import java.util.Map;
+
+/**
+ * An experiment whose outcome distribution can be computed exactly, for example by enumerating every
+ * path a trial can take.
+ * <p>
+ * {@link MonteCarloSimulator#runExact()} returns the exact distribution instead of sampling it, and
+ * simulated results can be checked against it as a ground truth.
+ */
+public interface AnalyticallyTractable<T> extends MonteCarloExperiment<T> {
+
+    /**
+     * Probability of every outcome of a single trial. Outcomes that cannot occur may be left out; the
+     * probabilities sum to 1.
+     */
+    Map<T, Double> getExactDistribution();
+}
@@ -0,0 +1,24 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * A {@link MonteCarloAggregator} that accepts primitive {@code boolean} values.
+ *
+ * @param <R> the aggregated result type
+ */
+public interface BooleanMonteCarloAggregator<R> extends MonteCarloAggregator<Boolean, R> {
+    void accumulateBoolean(boolean value);
+
+    /**
+     * Accumulates the first {@code length} values of {@code values}.
+     */
+    default void accumulateBatch(boolean[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            accumulateBoolean(values[i]);
+        }
+    }
+
+    @Override
+    default void accumulate(Boolean value) {
+        accumulateBoolean(value);
+    }
+}
@@ -0,0 +1,42 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link MonteCarloExperiment} specialized for {@code boolean} outcomes.
+ * <p>
+ * The simulator detects this interface and drives it through {@link #runTrialAsBoolean(SplittableRandom)}
+ * without boxing the result of each trial.
+ */
+@FunctionalInterface
+public interface BooleanMonteCarloExperiment extends MonteCarloExperiment<Boolean> {
+
+    /**
+     * Executes a single trial of the Monte Carlo experiment.
+     *
+     * @param rnd a source of randomness
+     * @return the result of the trial
+     */
+    boolean runTrialAsBoolean(SplittableRandom rnd);
+
+    /**
+     * Executes {@code length} consecutive trials and writes their results to {@code out}.
+     * <p>
+     * Implementations may override this with a vectorized kernel, but must consume the random
+     * stream exactly as {@code length} calls to {@link #runTrialAsBoolean(SplittableRandom)} would.
+     *
+     * @param rnd    a source of randomness
+     * @param out    destination buffer
+     * @param length number of trials to run, at most {@code out.length}
+     */
+    default void runBatch(SplittableRandom rnd, boolean[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = runTrialAsBoolean(rnd);
+        }
+    }
+
+    @Override
+    default Boolean runTrial(SplittableRandom rnd) {
+        return runTrialAsBoolean(rnd);
+    }
+}
@@ -0,0 +1,121 @@
+package org.tclover.montecarlo.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable outcome counts per category, readable as a {@code Map<K, Long>} in category order.
+ * <p>
+ * Besides the counts it offers each category's proportion of all counted outcomes and a Wilson score
+ * interval for it, which stays inside [0, 1] and behaves well for rare categories.
+ *
+ * @param <K> the category type
+ */
+public final class CategoryCounts<K> extends AbstractMap<K, Long> {
+    private final List<K> categories;
+    private final long[] counts;
+    private final long total;
+
+    /**
+     * @param categories the categories in order; {@code counts[i]} belongs to {@code categories.get(i)}
+     */
+    public CategoryCounts(List<K> categories, long[] counts) {
+        if (categories.size() != counts.length) {
+            throw new IllegalArgumentException("Expected " + categories.size() + " counts, got " + counts.length);
+        }
+        this.categories = List.copyOf(categories);
+        this.counts = counts.clone();
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        this.total = sum;
+    }
+
+    public long getCount(K category) {
+        int index = categories.indexOf(category);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Number of outcomes counted over all categories.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public double getProportion(K category) {
+        return total == 0 ? Double.NaN : (double) getCount(category) / total;
+    }
+
+    /**
+     * Wilson score interval for the proportion of {@code category}.
+     */
+    public double[] getConfidenceInterval(K category, double confidenceLevel) {
+        if (total == 0) {
+            return new double[]{Double.NaN, Double.NaN};
+        }
+        double z = MonteCarloResult.zScore(confidenceLevel);
+        double p = getProportion(category);
+        double z2n = z * z / total;
+        double centre = (p + z2n / 2) / (1 + z2n);
+        double margin = z * Math.sqrt(p * (1 - p) / total + z2n / (4.0 * total)) / (1 + z2n);
+        return new double[]{Math.max(0.0, centre - margin), Math.min(1.0, centre + margin)};
+    }
+
+    public List<K> getCategories() {
+        return categories;
+    }
+
+    @Override
+    public Long get(Object key) {
+        int index = categories.indexOf(key);
+        return index < 0 ? null : counts[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return categories.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return categories.size();
+    }
+
+    @Override
+    public Set<Entry<K, Long>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, Long>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < counts.length;
+                    }
+
+                    @Override
+                    public Entry<K, Long> next() {
+                        if (next >= counts.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return Map.entry(categories.get(i), counts[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return counts.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package org.tclover.montecarlo.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+
+/**
+ * On-disk checkpoint of a chunked simulation.
+ * <p>
+ * A checkpoint stores a fingerprint of the run (experiment, aggregator, seed, trial and chunk
+ * counts) and the batches of a {@link ChunkFolder}: per batch, how many of its chunks are folded, the
+ * folded aggregator and the chunks still waiting to be folded. Random stream positions need no separate
+ * state: chunk {@code k} always consumes stream {@code k} of {@link RandomStreams} from its start, so
+ * the completed chunk indices determine where every stream resumes.
+ */
+final class Checkpoint {
+    private static final int MAGIC = 0x4D434350; // "MCCP"
+    private static final int VERSION = 2;
+
+    private Checkpoint() {
+    }
+
+    /**
+     * Atomically replaces {@code file} with the chunks completed so far.
+     */
+    static <T, R> void write(Path file, String fingerprint, ChunkFolder<T, R> folder) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(fingerprint);
+                folder.writeState(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Restores the completed chunks recorded in {@code file} into {@code folder} and marks them in
+     * {@code restored}.
+     *
+     * @return the number of completed trials recorded in the checkpoint
+     * @throws IllegalStateException if the checkpoint belongs to a different run
+     */
+    static <T, R> long read(Path file, String fingerprint, ChunkFolder<T, R> folder, BitSet restored)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a simulation checkpoint: " + file);
+            }
+            String stored = in.readUTF();
+            if (!stored.equals(fingerprint)) {
+                throw new IllegalStateException("Checkpoint " + file + " belongs to a different run: " + stored);
+            }
+            return folder.readState(in, restored);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.tclover.montecarlo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.tclover.montecarlo.Chunk")
+@Label("Monte Carlo Chunk")
+@Category("Monte Carlo")
+@Description("One chunk of trials run by an engine worker")
+@StackTrace(false)
+final class ChunkEvent extends Event {
+    @Label("Experiment")
+    String experiment;
+
+    @Label("Chunk")
+    int chunk;
+
+    @Label("Worker")
+    int worker;
+
+    @Label("Trials")
+    long trials;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
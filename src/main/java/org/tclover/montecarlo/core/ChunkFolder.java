@@ -0,0 +1,169 @@
+package org.tclover.montecarlo.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Folds the aggregators of completed chunks into a fixed number of batch aggregators, so that a run
+ * holds a bounded number of aggregators however many chunks it has.
+ * <p>
+ * Chunk {@code k} belongs to batch {@code k % batches} and is combined into it in chunk order; a chunk
+ * that completes before its predecessor in the batch waits until the predecessor has been folded.
+ * Chunks are claimed in increasing order, so only about as many chunks wait as are in flight. The fold
+ * order only depends on which chunks have completed, so the batches, and everything merged from them,
+ * are the same for any number of threads.
+ */
+final class ChunkFolder<T, R> {
+    static final int BATCHES = MonteCarloResult.DEFAULT_BATCHES;
+
+    private final Supplier<? extends MonteCarloAggregator<T, R>> factory;
+    private final IntToLongFunction chunkTrials;
+    private final List<Batch> batches = new ArrayList<>();
+
+    /**
+     * @param chunkTrials number of trials of chunk {@code i}
+     */
+    ChunkFolder(int chunkCount, Supplier<? extends MonteCarloAggregator<T, R>> factory,
+                IntToLongFunction chunkTrials) {
+        this.factory = factory;
+        this.chunkTrials = chunkTrials;
+        for (int i = 0; i < Math.max(1, Math.min(BATCHES, chunkCount)); i++) {
+            batches.add(new Batch(i));
+        }
+    }
+
+    /**
+     * Hands over the aggregator of a completed chunk; it must not be used by the caller afterwards.
+     */
+    void add(int chunk, MonteCarloAggregator<T, R> aggregator) {
+        batches.get(chunk % batches.size()).add(chunk, aggregator);
+    }
+
+    /**
+     * Copies of the batches folded so far, each including its waiting chunks. The copies are not
+     * affected by chunks added later.
+     */
+    ChunkPartials<T, R> snapshot() {
+        List<MonteCarloAggregator<T, R>> copies = new ArrayList<>(batches.size());
+        long[] trials = new long[batches.size()];
+        for (int i = 0; i < batches.size(); i++) {
+            MonteCarloAggregator<T, R> copy = factory.get();
+            trials[i] = batches.get(i).copyInto(copy);
+            copies.add(copy);
+        }
+        return new ChunkPartials<>(copies, trials, factory);
+    }
+
+    /**
+     * Writes every batch and its waiting chunks. Each batch is written under its lock, so workers may
+     * keep completing chunks of other batches meanwhile.
+     */
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(batches.size());
+        for (Batch batch : batches) {
+            batch.writeState(out);
+        }
+    }
+
+    /**
+     * Restores the batches written by {@link #writeState} and marks their chunks in {@code restored}.
+     *
+     * @return the number of trials of the restored chunks
+     */
+    long readState(DataInputStream in, BitSet restored) throws IOException {
+        if (in.readInt() != batches.size()) {
+            throw new IOException("Checkpoint has a different number of batches");
+        }
+        long trials = 0;
+        for (Batch batch : batches) {
+            trials += batch.readState(in, restored);
+        }
+        return trials;
+    }
+
+    private final class Batch {
+        private final int index;
+        private final TreeMap<Integer, MonteCarloAggregator<T, R>> waiting = new TreeMap<>();
+        private MonteCarloAggregator<T, R> folded; // Null until the first chunk is folded
+        private int next; // Position in this batch of the next chunk to fold
+        private long trials;
+
+        Batch(int index) {
+            this.index = index;
+        }
+
+        synchronized void add(int chunk, MonteCarloAggregator<T, R> aggregator) {
+            waiting.put(chunk, aggregator);
+            for (Map.Entry<Integer, MonteCarloAggregator<T, R>> first = waiting.firstEntry();
+                 first != null && first.getKey() == chunkAt(next); first = waiting.firstEntry()) {
+                waiting.pollFirstEntry();
+                if (folded == null) {
+                    folded = first.getValue();
+                } else {
+                    folded.combine(first.getValue());
+                }
+                trials += chunkTrials.applyAsLong(first.getKey());
+                next++;
+            }
+        }
+
+        synchronized long copyInto(MonteCarloAggregator<T, R> copy) {
+            long total = trials;
+            if (folded != null) {
+                copy.combine(folded);
+            }
+            for (Map.Entry<Integer, MonteCarloAggregator<T, R>> entry : waiting.entrySet()) {
+                copy.combine(entry.getValue());
+                total += chunkTrials.applyAsLong(entry.getKey());
+            }
+            return total;
+        }
+
+        synchronized void writeState(DataOutputStream out) throws IOException {
+            out.writeInt(next);
+            if (folded != null) {
+                folded.writeState(out);
+            }
+            out.writeInt(waiting.size());
+            for (Map.Entry<Integer, MonteCarloAggregator<T, R>> entry : waiting.entrySet()) {
+                out.writeInt(entry.getKey());
+                entry.getValue().writeState(out);
+            }
+        }
+
+        synchronized long readState(DataInputStream in, BitSet restored) throws IOException {
+            next = in.readInt();
+            trials = 0;
+            for (int position = 0; position < next; position++) {
+                restored.set(chunkAt(position));
+                trials += chunkTrials.applyAsLong(chunkAt(position));
+            }
+            if (next > 0) {
+                folded = factory.get();
+                folded.readState(in);
+            }
+            long total = trials;
+            for (int i = in.readInt(); i > 0; i--) {
+                int chunk = in.readInt();
+                MonteCarloAggregator<T, R> aggregator = factory.get();
+                aggregator.readState(in);
+                waiting.put(chunk, aggregator);
+                restored.set(chunk);
+                total += chunkTrials.applyAsLong(chunk);
+            }
+            return total;
+        }
+
+        private int chunkAt(int position) {
+            return index + position * batches.size();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.tclover.montecarlo.core;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The batch aggregators of a run, kept with its result for error estimates that do not assume a
+ * normal, numeric outcome.
+ * <p>
+ * A {@link ChunkFolder} folds the chunks of a run into a fixed number of batches. Chunks are
+ * independent, identically distributed blocks of trials, and so are the batches; the spread of a
+ * statistic over batches measures the error of the statistic over the whole run. The partials are only
+ * read; every estimate combines them into fresh aggregators, in parallel on the common pool.
+ */
+final class ChunkPartials<T, R> {
+    private final List<MonteCarloAggregator<T, R>> partials;
+    private final long[] trials;
+    private final Supplier<? extends MonteCarloAggregator<T, R>> factory;
+
+    /**
+     * @param batches batch aggregators, owned by this object from now on
+     * @param trials  number of trials of each batch; batches without trials are left out
+     */
+    ChunkPartials(List<MonteCarloAggregator<T, R>> batches, long[] trials,
+                  Supplier<? extends MonteCarloAggregator<T, R>> factory) {
+        this.partials = new ArrayList<>();
+        long[] counts = new long[batches.size()];
+        for (int i = 0; i < batches.size(); i++) {
+            if (trials[i] > 0) {
+                counts[partials.size()] = trials[i];
+                partials.add(batches.get(i));
+            }
+        }
+        this.trials = Arrays.copyOf(counts, partials.size());
+        this.factory = factory;
+    }
+
+    int size() {
+        return partials.size();
+    }
+
+    long getTrials() {
+        return Arrays.stream(trials).sum();
+    }
+
+    /**
+     * Combines every batch, in order, into a fresh aggregator.
+     */
+    MonteCarloAggregator<T, R> merge() {
+        MonteCarloAggregator<T, R> merged = factory.get();
+        for (MonteCarloAggregator<T, R> partial : partials) {
+            merged.combine(partial);
+        }
+        return merged;
+    }
+
+    /**
+     * Batch means interval: the stored batches are split into {@code batches} contiguous groups of
+     * nearly equal size and the statistic is evaluated on each group. The interval is centred on {@code estimate}
+     * with half-width {@code t * s / sqrt(batches)}, where {@code s} is the standard deviation of the
+     * group statistics and {@code t} the Student quantile with {@code batches - 1} degrees of freedom.
+     */
+    double[] batchMeans(ToDoubleFunction<? super MonteCarloResult<R>> statistic, double estimate, int batches,
+                        double confidenceLevel) {
+        if (batches < 2 || batches > partials.size()) {
+            throw new IllegalArgumentException("Need between 2 and " + partials.size() + " batches, got " + batches);
+        }
+        int n = partials.size();
+        double[] values = IntStream.range(0, batches).parallel()
+                .mapToDouble(b -> {
+                    int from = (int) ((long) b * n / batches);
+                    int to = (int) ((long) (b + 1) * n / batches);
+                    MonteCarloAggregator<T, R> merged = factory.get();
+                    long samples = 0;
+                    for (int i = from; i < to; i++) {
+                        merged.combine(partials.get(i));
+                        samples += trials[i];
+                    }
+                    return statistic.applyAsDouble(new MonteCarloResult<>(merged.finish(samples), samples));
+                })
+                .toArray();
+        double mean = Arrays.stream(values).average().orElse(Double.NaN);
+        double sumSq = 0.0;
+        for (double v : values) {
+            sumSq += (v - mean) * (v - mean);
+        }
+        double sd = Math.sqrt(sumSq / (batches - 1));
+        double t = new TDistribution(null, batches - 1).inverseCumulativeProbability(1 - (1 - confidenceLevel) / 2);
+        // Every batch holds about 1/batches of the trials, so the full-run error is sd / sqrt(batches)
+        double margin = t * sd / Math.sqrt(batches);
+        return new double[]{estimate - margin, estimate + margin};
+    }
+
+    /**
+     * Percentile bootstrap interval: each of {@code resamples} replicates draws as many batches as the
+     * run stored, with replacement, combines them and evaluates the statistic. The interval spans the
+     * {@code (1 - level) / 2} and {@code (1 + level) / 2} quantiles of the replicates. Replicates use
+     * streams derived from {@code seed}, so the interval is reproducible. Cost grows with
+     * {@code resamples * batches} combines.
+     */
+    double[] bootstrap(ToDoubleFunction<? super MonteCarloResult<R>> statistic, int resamples,
+                       double confidenceLevel, long seed) {
+        if (resamples < 2) {
+            throw new IllegalArgumentException("Need at least two bootstrap resamples");
+        }
+        int n = partials.size();
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[resamples];
+        for (int r = 0; r < resamples; r++) {
+            streams[r] = root.split();
+        }
+        double[] values = IntStream.range(0, resamples).parallel()
+                .mapToDouble(r -> {
+                    SplittableRandom rnd = streams[r];
+                    MonteCarloAggregator<T, R> merged = factory.get();
+                    long samples = 0;
+                    for (int k = 0; k < n; k++) {
+                        int i = rnd.nextInt(n);
+                        merged.combine(partials.get(i));
+                        samples += trials[i];
+                    }
+                    return statistic.applyAsDouble(new MonteCarloResult<>(merged.finish(samples), samples));
+                })
+                .toArray();
+        Arrays.sort(values);
+        double alpha = (1 - confidenceLevel) / 2;
+        return new double[]{percentile(values, alpha), percentile(values, 1 - alpha)};
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        double position = p * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    }
+}
@@ -0,0 +1,24 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Runs the trials of one chunk of a {@link SimulationJob} into the chunk's aggregator.
+ */
+@FunctionalInterface
+interface ChunkRunner<T, R> {
+
+    /**
+     * @param rnd        the chunk's random stream
+     * @param firstTrial global index of the chunk's first trial
+     * @param trials     number of trials in the chunk
+     */
+    void run(MonteCarloAggregator<T, R> aggregator, SplittableRandom rnd, long firstTrial, long trials);
+
+    /**
+     * Runs independent trials of {@code experiment}, each drawing from the chunk's stream.
+     */
+    static <T, R> ChunkRunner<T, R> of(MonteCarloExperiment<T> experiment) {
+        return (aggregator, rnd, firstTrial, trials) -> TrialRunner.run(experiment, aggregator, rnd, trials);
+    }
+}
@@ -0,0 +1,21 @@
+package org.tclover.montecarlo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.tclover.montecarlo.Combine")
+@Label("Monte Carlo Combine")
+@Category("Monte Carlo")
+@Description("Merge of the batch aggregators of completed chunks")
+@StackTrace(false)
+final class CombineEvent extends Event {
+    @Label("Experiment")
+    String experiment;
+
+    @Label("Chunks")
+    int chunks;
+}
@@ -0,0 +1,175 @@
+package org.tclover.montecarlo.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fans every trial outcome out to several child aggregators, so that one pass over the trials yields
+ * several statistics, for example mean and variance together with category counts.
+ * <p>
+ * Children are declared on a {@link Builder}, which hands out a typed {@link Handle} per child and
+ * doubles as the factory of composites passed to {@code run}:
+ * <pre>{@code
+ * CompositeAggregator.Builder<Double> builder = CompositeAggregator.builder();
+ * Handle<MeanVarianceSummary> moments = builder.add(MeanVarianceAggregator::new);
+ * Handle<HistogramSummary> histogram = builder.add(() -> new HistogramAggregator(10, -8, 8));
+ * MonteCarloResult<CompositeResult> result = simulator.run(builder);
+ * double median = result.get(histogram).getQuantile(0.5);
+ * }</pre>
+ * A composite can be checkpointed or distributed when all of its children can.
+ *
+ * @param <T> the trial outcome type
+ */
+public final class CompositeAggregator<T> implements MonteCarloAggregator<T, CompositeResult> {
+    private final Builder<T> owner;
+    private final List<Child<T, ?, ?>> children;
+
+    private CompositeAggregator(Builder<T> owner, List<Child<T, ?, ?>> children) {
+        this.owner = owner;
+        this.children = children;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public void accumulate(T value) {
+        for (Child<T, ?, ?> child : children) {
+            child.accumulate(value);
+        }
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<T, CompositeResult> other) {
+        if (other instanceof CompositeAggregator<T> o && o.owner == owner) {
+            for (int i = 0; i < children.size(); i++) {
+                children.get(i).combine(o.children.get(i));
+            }
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public CompositeResult finish(long totalSamples) {
+        Object[] results = new Object[children.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = children.get(i).aggregator.finish(totalSamples);
+        }
+        return new CompositeResult(owner, results);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(children.size());
+        for (Child<T, ?, ?> child : children) {
+            child.aggregator.writeState(out);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size != children.size()) {
+            throw new IOException("Expected " + children.size() + " child aggregators, found " + size);
+        }
+        for (Child<T, ?, ?> child : children) {
+            child.aggregator.readState(in);
+        }
+    }
+
+    /**
+     * Typed reference to the result of one child of a composite.
+     *
+     * @param <R> the child's result type
+     */
+    public static final class Handle<R> {
+        final Builder<?> owner;
+        final int index;
+
+        private Handle(Builder<?> owner, int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Declares the children of a composite and creates fresh composites for every chunk.
+     */
+    public static final class Builder<T> implements Supplier<CompositeAggregator<T>> {
+        private final List<ChildFactory<T, ?, ?>> factories = new ArrayList<>();
+        private boolean built;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a child that receives every outcome.
+         */
+        public <R> Handle<R> add(Supplier<? extends MonteCarloAggregator<T, R>> factory) {
+            return add(Function.identity(), factory);
+        }
+
+        /**
+         * Adds a child that receives {@code mapping} of every outcome, for example a numeric score of a
+         * categorical outcome.
+         */
+        public <U, R> Handle<R> add(Function<? super T, ? extends U> mapping,
+                                    Supplier<? extends MonteCarloAggregator<U, R>> factory) {
+            if (built) {
+                throw new IllegalStateException("Children cannot be added once composites have been created");
+            }
+            factories.add(new ChildFactory<>(mapping, factory));
+            return new Handle<>(this, factories.size() - 1);
+        }
+
+        @Override
+        public CompositeAggregator<T> get() {
+            built = true;
+            List<Child<T, ?, ?>> children = new ArrayList<>(factories.size());
+            for (ChildFactory<T, ?, ?> factory : factories) {
+                children.add(factory.create());
+            }
+            return new CompositeAggregator<>(this, children);
+        }
+    }
+
+    private static final class ChildFactory<T, U, R> {
+        private final Function<? super T, ? extends U> mapping;
+        private final Supplier<? extends MonteCarloAggregator<U, R>> factory;
+
+        ChildFactory(Function<? super T, ? extends U> mapping, Supplier<? extends MonteCarloAggregator<U, R>> factory) {
+            this.mapping = mapping;
+            this.factory = factory;
+        }
+
+        Child<T, U, R> create() {
+            return new Child<>(mapping, factory.get());
+        }
+    }
+
+    private static final class Child<T, U, R> {
+        private final Function<? super T, ? extends U> mapping;
+        private final MonteCarloAggregator<U, R> aggregator;
+
+        Child(Function<? super T, ? extends U> mapping, MonteCarloAggregator<U, R> aggregator) {
+            this.mapping = mapping;
+            this.aggregator = aggregator;
+        }
+
+        void accumulate(T value) {
+            aggregator.accumulate(mapping.apply(value));
+        }
+
+        @SuppressWarnings("unchecked")
+        void combine(Child<T, ?, ?> other) {
+            aggregator.combine((MonteCarloAggregator<U, R>) other.aggregator);
+        }
+    }
+}
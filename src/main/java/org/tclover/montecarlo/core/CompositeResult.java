@@ -0,0 +1,35 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * Results of the children of a {@link CompositeAggregator}, read back through their handles.
+ */
+public final class CompositeResult {
+    private final Object owner;
+    private final Object[] results;
+
+    CompositeResult(Object owner, Object[] results) {
+        this.owner = owner;
+        this.results = results;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> R get(CompositeAggregator.Handle<R> handle) {
+        if (handle.owner != owner) {
+            throw new IllegalArgumentException("Handle belongs to another composite");
+        }
+        return (R) results[handle.index];
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < results.length; i++) {
+            text.append(i == 0 ? "" : "; ").append(results[i]);
+        }
+        return text.append(']').toString();
+    }
+}
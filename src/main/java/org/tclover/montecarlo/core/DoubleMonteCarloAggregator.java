@@ -0,0 +1,24 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * A {@link MonteCarloAggregator} that accepts primitive {@code double} values.
+ *
+ * @param <R> the aggregated result type
+ */
+public interface DoubleMonteCarloAggregator<R> extends MonteCarloAggregator<Double, R> {
+    void accumulateDouble(double value);
+
+    /**
+     * Accumulates the first {@code length} values of {@code values}.
+     */
+    default void accumulateBatch(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            accumulateDouble(values[i]);
+        }
+    }
+
+    @Override
+    default void accumulate(Double value) {
+        accumulateDouble(value);
+    }
+}
@@ -0,0 +1,42 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link MonteCarloExperiment} specialized for {@code double} outcomes.
+ * <p>
+ * The simulator detects this interface and drives it through {@link #runTrialAsDouble(SplittableRandom)}
+ * without boxing the result of each trial.
+ */
+@FunctionalInterface
+public interface DoubleMonteCarloExperiment extends MonteCarloExperiment<Double> {
+
+    /**
+     * Executes a single trial of the Monte Carlo experiment.
+     *
+     * @param rnd a source of randomness
+     * @return the result of the trial
+     */
+    double runTrialAsDouble(SplittableRandom rnd);
+
+    /**
+     * Executes {@code length} consecutive trials and writes their results to {@code out}.
+     * <p>
+     * Implementations may override this with a vectorized kernel, but must consume the random
+     * stream exactly as {@code length} calls to {@link #runTrialAsDouble(SplittableRandom)} would.
+     *
+     * @param rnd    a source of randomness
+     * @param out    destination buffer
+     * @param length number of trials to run, at most {@code out.length}
+     */
+    default void runBatch(SplittableRandom rnd, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = runTrialAsDouble(rnd);
+        }
+    }
+
+    @Override
+    default Double runTrial(SplittableRandom rnd) {
+        return runTrialAsDouble(rnd);
+    }
+}
@@ -0,0 +1,32 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * A {@link MeanVarianceSummary} that also carries the distribution of the outcomes as a
+ * {@link LogHistogram}, for quantiles and tail probabilities.
+ */
+public class HistogramSummary extends MeanVarianceSummary {
+    private final LogHistogram histogram;
+
+    public HistogramSummary(double mean, double variance, LogHistogram histogram) {
+        super(mean, variance);
+        this.histogram = histogram;
+    }
+
+    public LogHistogram getHistogram() {
+        return histogram;
+    }
+
+    public double getQuantile(double q) {
+        return histogram.getQuantile(q);
+    }
+
+    public double getCdf(double x) {
+        return histogram.getCdf(x);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Median: %.6f, 99th percentile: %.6f", super.toString(), getQuantile(0.5),
+                getQuantile(0.99));
+    }
+}
@@ -0,0 +1,137 @@
+package org.tclover.montecarlo.core;
+
+import org.tclover.montecarlo.metrics.PaddedCounters;
+import org.tclover.montecarlo.metrics.SimulationMetrics;
+import org.tclover.montecarlo.metrics.SimulationMetricsListener;
+import org.tclover.montecarlo.metrics.WorkerMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime counters of one {@link SimulationJob}.
+ * <p>
+ * Every engine worker updates its own padded row of counters, so recording a chunk never contends with
+ * other workers. Chunk and combine timings are also forwarded to the metrics listener and emitted as
+ * JFR events when a recording has them enabled.
+ */
+final class JobMetrics {
+    private static final int TRIALS = 0;
+    private static final int CHUNKS = 1;
+    private static final int BUSY_NANOS = 2;
+    private static final int ALLOCATED_BYTES = 3;
+    private static final int FIELDS = 4;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final String experiment;
+    private final PaddedCounters counters;
+    private final SimulationMetricsListener listener;
+    private final AtomicLong combineNanos = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    JobMetrics(String experiment, int workers, SimulationMetricsListener listener) {
+        this.experiment = experiment;
+        this.counters = new PaddedCounters(workers, FIELDS);
+        this.listener = listener;
+    }
+
+    /**
+     * Heap bytes allocated so far by the calling thread, or -1 if the JVM cannot tell.
+     */
+    static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    long completedTrials() {
+        return counters.sum(TRIALS);
+    }
+
+    void chunkCompleted(ChunkEvent event, int chunk, long trials, long latencyNanos, long allocatedBytes) {
+        int worker = worker();
+        counters.add(worker, TRIALS, trials);
+        counters.add(worker, CHUNKS, 1);
+        counters.add(worker, BUSY_NANOS, latencyNanos);
+        counters.add(worker, ALLOCATED_BYTES, allocatedBytes);
+        if (listener != null) {
+            listener.onChunk(worker, chunk, trials, latencyNanos, allocatedBytes);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.experiment = experiment;
+            event.chunk = chunk;
+            event.worker = worker;
+            event.trials = trials;
+            event.allocatedBytes = allocatedBytes;
+            event.commit();
+        }
+    }
+
+    void combineCompleted(CombineEvent event, int chunks, long nanos) {
+        combineNanos.addAndGet(nanos);
+        if (listener != null) {
+            listener.onCombine(chunks, nanos);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.experiment = experiment;
+            event.chunks = chunks;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reports the final metrics to the listener and as a JFR event.
+     */
+    SimulationMetrics completed() {
+        SimulationMetrics metrics = snapshot();
+        if (listener != null) {
+            listener.onComplete(metrics);
+        }
+        SimulationEvent event = new SimulationEvent();
+        if (event.shouldCommit()) {
+            event.experiment = experiment;
+            event.trials = metrics.getTrials();
+            event.elapsed = metrics.getElapsed().toNanos();
+            event.trialsPerSecond = metrics.getTrialsPerSecond();
+            event.combineTime = metrics.getCombineTime().toNanos();
+            event.bytesPerTrial = metrics.getBytesAllocatedPerTrial();
+            event.commit();
+        }
+        return metrics;
+    }
+
+    SimulationMetrics snapshot() {
+        List<WorkerMetrics> workers = new ArrayList<>();
+        for (int worker = 0; worker < counters.getSlots(); worker++) {
+            long chunks = counters.get(worker, CHUNKS);
+            if (chunks > 0) {
+                long allocated = THREADS == null ? -1 : counters.get(worker, ALLOCATED_BYTES);
+                workers.add(new WorkerMetrics(worker, counters.get(worker, TRIALS), chunks,
+                        counters.get(worker, BUSY_NANOS), allocated));
+            }
+        }
+        return new SimulationMetrics(workers, System.nanoTime() - startNanos, combineNanos.get());
+    }
+
+    /**
+     * Maps the calling engine worker to a counter row. Pools may briefly run more workers than their
+     * parallelism, so indices wrap around; rows tolerate sharing.
+     */
+    private int worker() {
+        return Thread.currentThread() instanceof ForkJoinWorkerThread t ? t.getPoolIndex() % counters.getSlots() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemorySupported()
+                && t.isThreadAllocatedMemoryEnabled()) {
+            return t;
+        }
+        return null;
+    }
+}
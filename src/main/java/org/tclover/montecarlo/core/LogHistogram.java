@@ -0,0 +1,309 @@
+package org.tclover.montecarlo.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Fixed-memory histogram with logarithmically spaced buckets, in the style of HdrHistogram.
+ * <p>
+ * A value's bucket is read directly from its binary exponent and the top {@code precisionBits} bits of
+ * its mantissa, so recording is a few bit operations and an array increment. Every power of two is
+ * split into {@code 2^precisionBits} buckets, which bounds the relative width of a bucket by
+ * {@code 2^-precisionBits} over the whole range of magnitudes {@code [2^minExponent, 2^maxExponent)}.
+ * The default layout has 7 bits (under 0.8%) over {@code [2^-32, 2^32)} in 64 KB per sign. Smaller and
+ * larger magnitudes fall into the innermost and outermost buckets; the exact minimum and maximum are
+ * kept separately so that extreme quantiles stay within the observed range.
+ * <p>
+ * Histograms with the same layout merge by adding bucket counts, so combining the histograms of several
+ * workers is exact.
+ */
+public final class LogHistogram {
+    public static final int DEFAULT_PRECISION_BITS = 7;
+    public static final int DEFAULT_MIN_EXPONENT = -32;
+    public static final int DEFAULT_MAX_EXPONENT = 32;
+
+    private final int precisionBits;
+    private final int minExponent;
+    private final int maxExponent;
+    private final int buckets;
+    private final int mantissaShift;
+    private final long mantissaMask;
+    private final long[] positive;
+    private long[] negative; // allocated on the first negative value
+    private long zeros;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS, DEFAULT_MIN_EXPONENT, DEFAULT_MAX_EXPONENT);
+    }
+
+    /**
+     * @param precisionBits mantissa bits per bucket; bucket width is at most {@code 2^-precisionBits}
+     *                      relative
+     * @param minExponent   binary exponent of the smallest resolved magnitude
+     * @param maxExponent   binary exponent above the largest resolved magnitude
+     */
+    public LogHistogram(int precisionBits, int minExponent, int maxExponent) {
+        if (precisionBits < 0 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits must be between 0 and 16");
+        }
+        if (minExponent < -1022 || maxExponent > 1024 || minExponent >= maxExponent) {
+            throw new IllegalArgumentException("Exponent range must be a non-empty part of [-1022, 1024]");
+        }
+        long size = (long) (maxExponent - minExponent) << precisionBits;
+        if (size > 1 << 24) {
+            throw new IllegalArgumentException("Histogram would need " + size + " buckets per sign");
+        }
+        this.precisionBits = precisionBits;
+        this.minExponent = minExponent;
+        this.maxExponent = maxExponent;
+        this.buckets = (int) size;
+        this.mantissaShift = 52 - precisionBits;
+        this.mantissaMask = (1L << precisionBits) - 1;
+        this.positive = new long[buckets];
+    }
+
+    /**
+     * Records one value. NaN values are ignored.
+     */
+    public void record(double value) {
+        if (value > 0.0) {
+            positive[bucket(value)]++;
+        } else if (value < 0.0) {
+            if (negative == null) {
+                negative = new long[buckets];
+            }
+            negative[bucket(-value)]++;
+        } else if (value == 0.0) {
+            zeros++;
+        } else {
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code other} has a different bucket layout
+     */
+    public void merge(LogHistogram other) {
+        if (other.precisionBits != precisionBits || other.minExponent != minExponent
+                || other.maxExponent != maxExponent) {
+            throw new IllegalArgumentException("Histograms have different bucket layouts");
+        }
+        for (int i = 0; i < buckets; i++) {
+            positive[i] += other.positive[i];
+        }
+        if (other.negative != null) {
+            if (negative == null) {
+                negative = new long[buckets];
+            }
+            for (int i = 0; i < buckets; i++) {
+                negative[i] += other.negative[i];
+            }
+        }
+        zeros += other.zeros;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public LogHistogram copy() {
+        LogHistogram copy = new LogHistogram(precisionBits, minExponent, maxExponent);
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estimates the {@code q}-quantile, interpolating linearly within the bucket that holds it.
+     *
+     * @param q probability in [0, 1]
+     */
+    public double getQuantile(double q) {
+        if (!(q >= 0.0 && q <= 1.0)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = q * count;
+        long seen = 0;
+        if (negative != null) {
+            for (int i = buckets - 1; i >= 0; i--) {
+                long c = negative[i];
+                if (c > 0 && seen + c >= rank) {
+                    return clamp(-interpolate(i + 1, i, (rank - seen) / c));
+                }
+                seen += c;
+            }
+        }
+        if (zeros > 0 && seen + zeros >= rank) {
+            return clamp(0.0);
+        }
+        seen += zeros;
+        for (int i = 0; i < buckets; i++) {
+            long c = positive[i];
+            if (c > 0 && seen + c >= rank) {
+                return clamp(interpolate(i, i + 1, (rank - seen) / c));
+            }
+            seen += c;
+        }
+        return max;
+    }
+
+    /**
+     * Estimates {@code P(X <= x)}, assuming values are spread evenly within each bucket.
+     */
+    public double getCdf(double x) {
+        if (count == 0 || Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        if (x < min) {
+            return 0.0;
+        }
+        if (x >= max) {
+            return 1.0;
+        }
+        double below = 0.0;
+        if (x < 0.0) {
+            int b = bucket(-x);
+            for (int i = buckets - 1; i > b; i--) {
+                below += negative[i];
+            }
+            // Within bucket b the values lie between -upper(b) and -lower(b)
+            below += negative[b] * fraction(-x, lowerBound(b), lowerBound(b + 1), true);
+            return below / count;
+        }
+        if (negative != null) {
+            for (long c : negative) {
+                below += c;
+            }
+        }
+        below += zeros;
+        if (x > 0.0) {
+            int b = bucket(x);
+            for (int i = 0; i < b; i++) {
+                below += positive[i];
+            }
+            below += positive[b] * fraction(x, lowerBound(b), lowerBound(b + 1), false);
+        }
+        return below / count;
+    }
+
+    /**
+     * Writes the non-empty buckets so that {@link #readFrom(DataInput)} restores this histogram exactly.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(precisionBits);
+        out.writeInt(minExponent);
+        out.writeInt(maxExponent);
+        out.writeLong(count);
+        out.writeLong(zeros);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        writeBuckets(out, positive);
+        writeBuckets(out, negative == null ? new long[0] : negative);
+    }
+
+    /**
+     * Replaces this histogram with one of the same layout written by {@link #writeTo(DataOutput)}.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        if (in.readInt() != precisionBits | in.readInt() != minExponent | in.readInt() != maxExponent) {
+            throw new IOException("Histogram state has a different bucket layout");
+        }
+        count = in.readLong();
+        zeros = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+        long[] counts = readBuckets(in);
+        System.arraycopy(counts == null ? new long[buckets] : counts, 0, positive, 0, buckets);
+        negative = readBuckets(in);
+    }
+
+    private static void writeBuckets(DataOutput out, long[] buckets) throws IOException {
+        out.writeInt(buckets.length);
+        int used = 0;
+        for (long c : buckets) {
+            if (c != 0) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(buckets[i]);
+            }
+        }
+    }
+
+    private long[] readBuckets(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length != 0 && length != buckets) {
+            throw new IOException("Expected " + buckets + " buckets, found " + length);
+        }
+        long[] counts = length == 0 ? null : new long[buckets];
+        int used = in.readInt();
+        for (int k = 0; k < used; k++) {
+            int index = in.readInt();
+            if (counts == null || index < 0 || index >= buckets) {
+                throw new IOException("Bucket index out of range: " + index);
+            }
+            counts[index] = in.readLong();
+        }
+        return counts;
+    }
+
+    private int bucket(double magnitude) {
+        long bits = Double.doubleToRawLongBits(magnitude);
+        int exponent = (int) (bits >>> 52) - 1023;
+        if (exponent < minExponent) {
+            return 0;
+        }
+        if (exponent >= maxExponent) {
+            return buckets - 1;
+        }
+        return ((exponent - minExponent) << precisionBits) | (int) ((bits >>> mantissaShift) & mantissaMask);
+    }
+
+    /**
+     * Smallest magnitude of bucket {@code index}; {@code lowerBound(buckets)} is the top of the range.
+     */
+    private double lowerBound(int index) {
+        int exponent = (index >> precisionBits) + minExponent;
+        int subBuckets = 1 << precisionBits;
+        return Math.scalb(1.0 + (double) (index & (subBuckets - 1)) / subBuckets, exponent);
+    }
+
+    private double interpolate(int from, int to, double fraction) {
+        double a = lowerBound(from);
+        return a + (lowerBound(to) - a) * Math.min(Math.max(fraction, 0.0), 1.0);
+    }
+
+    private static double fraction(double x, double lower, double upper, boolean descending) {
+        double f = (x - lower) / (upper - lower);
+        f = Math.min(Math.max(f, 0.0), 1.0);
+        return descending ? 1.0 - f : f;
+    }
+
+    private double clamp(double value) {
+        return Math.min(Math.max(value, min), max);
+    }
+}
@@ -1,9 +1,28 @@
 package org.tclover.montecarlo.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public interface MonteCarloAggregator<T, R> {
     void accumulate(T value);
 
     void combine(MonteCarloAggregator<T, R> other);
 
     R finish(long totalSamples);
+
+    /**
+     * Writes the accumulated state so that {@link #readState(DataInput)} on a fresh instance restores
+     * it exactly. Used for checkpoints; aggregators that do not override it cannot be checkpointed.
+     */
+    default void writeState(DataOutput out) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support serialization");
+    }
+
+    /**
+     * Replaces the accumulated state with one written by {@link #writeState(DataOutput)}.
+     */
+    default void readState(DataInput in) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support serialization");
+    }
 }
@@ -0,0 +1,134 @@
+package org.tclover.montecarlo.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A long-lived execution engine that runs many simulations on one shared worker pool.
+ * <p>
+ * Simulations are executed chunk by chunk. Every pending chunk waits in a single priority queue,
+ * ordered by job priority and then by arrival, and a chunk that finishes re-queues its job at the
+ * back. Jobs of equal priority therefore interleave their chunks fairly across all cores, while a
+ * higher-priority job is served first. No thread ever blocks waiting for a simulation; results are
+ * delivered through the job's future from the worker that finishes it.
+ * <p>
+ * {@link MonteCarloSimulator} uses {@link #shared()} unless another engine is set.
+ */
+public final class MonteCarloEngine implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final PriorityBlockingQueue<Slot> ready = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final boolean shared;
+    private int activeJobs;
+    private boolean closed;
+
+    public MonteCarloEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MonteCarloEngine(int parallelism) {
+        this(parallelism, false);
+    }
+
+    private MonteCarloEngine(int parallelism, boolean shared) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.shared = shared;
+    }
+
+    /**
+     * Returns the process-wide engine sized to the number of available processors.
+     * It runs on daemon threads and cannot be closed.
+     */
+    public static MonteCarloEngine shared() {
+        return Shared.INSTANCE;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops accepting new simulations. Simulations already submitted run to completion, after which
+     * the worker pool shuts down.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            throw new IllegalStateException("The shared engine cannot be closed");
+        }
+        synchronized (this) {
+            closed = true;
+            if (activeJobs > 0) {
+                return;
+            }
+        }
+        pool.shutdown();
+    }
+
+    <T, R> void submit(SimulationJob<T, R> job) {
+        synchronized (this) {
+            if (closed) {
+                throw new RejectedExecutionException("Engine is closed");
+            }
+            activeJobs++;
+        }
+        job.getFuture().whenComplete((result, error) -> jobFinished());
+        job.start(this);
+    }
+
+    /**
+     * Queues one chunk of {@code job}.
+     */
+    void schedule(SimulationJob<?, ?> job) {
+        ready.add(new Slot(job, sequence.getAndIncrement()));
+        pool.execute(this::runNext);
+    }
+
+    /**
+     * Runs the most urgent queued chunk. Exactly one task is submitted to the pool per queued slot, so
+     * every slot is eventually taken, but each task picks whichever slot is most urgent at that time.
+     */
+    private void runNext() {
+        Slot slot = ready.poll();
+        if (slot != null && slot.job.step()) {
+            schedule(slot.job);
+        }
+    }
+
+    private void jobFinished() {
+        synchronized (this) {
+            activeJobs--;
+            if (!closed || activeJobs > 0) {
+                return;
+            }
+        }
+        pool.shutdown();
+    }
+
+    private static final class Slot implements Comparable<Slot> {
+        final SimulationJob<?, ?> job;
+        final int priority;
+        final long sequence;
+
+        Slot(SimulationJob<?, ?> job, long sequence) {
+            this.job = job;
+            this.priority = job.getPriority();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Shared {
+        static final MonteCarloEngine INSTANCE =
+                new MonteCarloEngine(Runtime.getRuntime().availableProcessors(), true);
+    }
+}
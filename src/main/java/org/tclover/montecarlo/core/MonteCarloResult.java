@@ -1,19 +1,52 @@
 package org.tclover.montecarlo.core;
 
+import org.apache.commons.math3.distribution.ChiSquaredDistribution;
 import org.apache.commons.math3.distribution.NormalDistribution;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
 /**
  * Generic Monte Carlo simulation result container.
+ * <p>
+ * Results of {@link MonteCarloSimulator} runs keep up to {@link #DEFAULT_BATCHES} batch aggregators,
+ * chunk {@code k} of the run having been merged into batch {@code k % DEFAULT_BATCHES}, so that batch
+ * means and bootstrap intervals can be computed for any statistic of any result type without rerunning
+ * trials. Live snapshots do not keep batches.
  *
  * @param <T> the type of aggregated result (e.g. Double, Map<String, Integer>, etc.)
  */
 public final class MonteCarloResult<T> {
+    public static final int DEFAULT_BATCHES = 30;
+
+    private static final NormalDistribution STANDARD_NORMAL = new NormalDistribution(null, 0.0, 1.0);
+    private static final Map<Double, Double> Z_SCORES = new ConcurrentHashMap<>();
+
     private final T result;
     private final long samples;
+    private final double standardError;
+    private final ChunkPartials<?, T> partials;
 
     public MonteCarloResult(T result, long samples) {
+        this(result, samples, Double.NaN);
+    }
+
+    /**
+     * Creates a result whose standard error was estimated by the caller, for estimators whose samples
+     * are not independent (such as randomized quasi-Monte Carlo) and where {@code sqrt(variance / samples)}
+     * does not apply.
+     */
+    public MonteCarloResult(T result, long samples, double standardError) {
+        this(result, samples, standardError, null);
+    }
+
+    MonteCarloResult(T result, long samples, double standardError, ChunkPartials<?, T> partials) {
         this.result = result;
         this.samples = samples;
+        this.standardError = standardError;
+        this.partials = partials;
     }
 
     public T getResult() {
@@ -30,6 +63,9 @@ public final class MonteCarloResult<T> {
      * @return standard error if applicable, otherwise throws
      */
     public double getStandardError() {
+        if (!Double.isNaN(standardError)) {
+            return standardError;
+        }
         if (result instanceof MeanVarianceSummary summary) {
             double safeVariance = Math.max(summary.variance, 0.0);
             if (samples <= 1 || Double.isNaN(safeVariance)) {
@@ -46,8 +82,7 @@ public final class MonteCarloResult<T> {
             if (Double.isNaN(stdErr)) {
                 return new double[]{Double.NaN, Double.NaN};
             }
-            double z = new NormalDistribution().inverseCumulativeProbability(1 - (1 - confidenceLevel) / 2);
-            double margin = z * stdErr;
+            double margin = zScore(confidenceLevel) * stdErr;
             return new double[]{summary.mean - margin, summary.mean + margin};
         }
         throw new UnsupportedOperationException("Confidence interval is not supported for non-numeric results.");
@@ -67,6 +102,163 @@ public final class MonteCarloResult<T> {
         throw new UnsupportedOperationException("Variance is not available for non-numeric results.");
     }
 
+    /**
+     * How many times fewer experiment evaluations this estimate needed than plain sampling would for
+     * the same standard error; 1 for results without variance reduction.
+     */
+    public double getVarianceReductionFactor() {
+        if (result instanceof VarianceReducedSummary summary) {
+            return summary.varianceReductionFactor;
+        }
+        if (result instanceof MeanVarianceSummary) {
+            return 1.0;
+        }
+        throw new UnsupportedOperationException("Variance reduction is not available for non-numeric results.");
+    }
+
+    /**
+     * Batch means confidence interval for {@code statistic} over every stored batch: {@link #DEFAULT_BATCHES},
+     * or one batch per chunk if the run had fewer chunks.
+     *
+     * @see #getBatchMeansInterval(ToDoubleFunction, int, double)
+     */
+    public double[] getBatchMeansInterval(ToDoubleFunction<? super MonteCarloResult<T>> statistic,
+                                          double confidenceLevel) {
+        return getBatchMeansInterval(statistic, Math.min(DEFAULT_BATCHES, requirePartials().size()), confidenceLevel);
+    }
+
+    /**
+     * Confidence interval for any statistic of the result, from its spread over batches of chunks.
+     * <p>
+     * The stored batches are split into {@code batches} contiguous groups, each group is merged and
+     * {@code statistic} is evaluated on it as if it were a whole run. The interval is centred on the
+     * statistic of this result, with the Student-t half-width of the batch values scaled to the full
+     * run. The statistic can be anything computed from a result, for example
+     * {@code r -> r.getResult().get(MutationType.NONSENSE) / (double) r.getSamples()}.
+     *
+     * @param batches between 2 and the number of stored batches
+     * @throws UnsupportedOperationException if this result does not carry batch aggregators
+     */
+    public double[] getBatchMeansInterval(ToDoubleFunction<? super MonteCarloResult<T>> statistic, int batches,
+                                          double confidenceLevel) {
+        return requirePartials().batchMeans(statistic, statistic.applyAsDouble(this), batches, confidenceLevel);
+    }
+
+    /**
+     * Percentile bootstrap confidence interval for any statistic of the result, from {@code resamples}
+     * replicates that each merge a resample, with replacement, of the stored batches. The interval is
+     * reproducible for a given {@code seed}.
+     *
+     * @throws UnsupportedOperationException if this result does not carry batch aggregators
+     */
+    public double[] getBootstrapInterval(ToDoubleFunction<? super MonteCarloResult<T>> statistic, int resamples,
+                                         double confidenceLevel, long seed) {
+        return requirePartials().bootstrap(statistic, resamples, confidenceLevel, seed);
+    }
+
+    /**
+     * Goodman's simultaneous confidence intervals for the category probabilities of a result that
+     * counts outcomes per category, such as {@code Map<MutationType, Long>}. All intervals hold at once
+     * with probability at least {@code confidenceLevel}.
+     *
+     * @return {@code [lower, upper]} per category, in the iteration order of the counts
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, double[]> getSimultaneousIntervals(double confidenceLevel) {
+        if (!(result instanceof Map<?, ?> counts)) {
+            throw new UnsupportedOperationException("Simultaneous intervals need a map of category counts.");
+        }
+        double total = 0.0;
+        for (Object count : counts.values()) {
+            if (!(count instanceof Number number)) {
+                throw new UnsupportedOperationException("Simultaneous intervals need numeric category counts.");
+            }
+            total += number.doubleValue();
+        }
+        Map<K, double[]> intervals = new LinkedHashMap<>();
+        if (total == 0.0) {
+            for (Object category : counts.keySet()) {
+                intervals.put((K) category, new double[]{Double.NaN, Double.NaN});
+            }
+            return intervals;
+        }
+        // Bonferroni-adjusted chi-square quantile with one degree of freedom
+        double a = new ChiSquaredDistribution(null, 1)
+                .inverseCumulativeProbability(1 - (1 - confidenceLevel) / counts.size());
+        for (Map.Entry<?, ?> entry : counts.entrySet()) {
+            double n = ((Number) entry.getValue()).doubleValue();
+            double root = Math.sqrt(a * (a + 4 * n * (total - n) / total));
+            intervals.put((K) entry.getKey(), new double[]{
+                    (a + 2 * n - root) / (2 * (total + a)),
+                    (a + 2 * n + root) / (2 * (total + a))});
+        }
+        return intervals;
+    }
+
+    /**
+     * Returns the result of one child of a {@link CompositeAggregator}, over the same samples, so that
+     * its standard error and confidence interval can be read as for a single-aggregator run.
+     */
+    public <R> MonteCarloResult<R> get(CompositeAggregator.Handle<R> handle) {
+        if (result instanceof CompositeResult composite) {
+            return new MonteCarloResult<>(composite.get(handle), samples);
+        }
+        throw new UnsupportedOperationException("Only composite results have child results.");
+    }
+
+    /**
+     * Estimates the {@code q}-quantile of the outcomes from a {@link HistogramSummary}.
+     */
+    public double getQuantile(double q) {
+        if (result instanceof HistogramSummary summary) {
+            return summary.getQuantile(q);
+        }
+        throw new UnsupportedOperationException("Quantiles need a histogram result.");
+    }
+
+    /**
+     * Estimates the probability that an outcome is at most {@code x} from a {@link HistogramSummary}.
+     */
+    public double getCdf(double x) {
+        if (result instanceof HistogramSummary summary) {
+            return summary.getCdf(x);
+        }
+        throw new UnsupportedOperationException("The distribution function needs a histogram result.");
+    }
+
+    /**
+     * Kish's effective sample size {@code (sum w)^2 / sum w^2} of importance-sampled results: the number
+     * of unweighted trials that would carry as much information as the weighted ones. Unweighted numeric
+     * results report their sample count.
+     */
+    public double getEffectiveSampleSize() {
+        if (result instanceof WeightedSummary summary) {
+            return summary.effectiveSampleSize;
+        }
+        if (result instanceof WeightedProportions<?> proportions) {
+            return proportions.getEffectiveSampleSize();
+        }
+        if (result instanceof MeanVarianceSummary) {
+            return samples;
+        }
+        throw new UnsupportedOperationException("Effective sample size is not available for unweighted non-numeric results.");
+    }
+
+    /**
+     * Two-sided standard normal quantile for {@code confidenceLevel}, cached per level.
+     */
+    static double zScore(double confidenceLevel) {
+        return Z_SCORES.computeIfAbsent(confidenceLevel,
+                level -> STANDARD_NORMAL.inverseCumulativeProbability(1 - (1 - level) / 2));
+    }
+
+    private ChunkPartials<?, T> requirePartials() {
+        if (partials == null) {
+            throw new UnsupportedOperationException("This result does not carry batch aggregators.");
+        }
+        return partials;
+    }
+
     @Override
     public String toString() {
         return String.format("Samples: %d, Result: %s", samples, result);
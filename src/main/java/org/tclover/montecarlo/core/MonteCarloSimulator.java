@@ -1,121 +1,302 @@
 package org.tclover.montecarlo.core;
 
-import java.util.SplittableRandom;
+import org.tclover.montecarlo.metrics.SimulationMetricsListener;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * Runs a {@link MonteCarloExperiment} for a number of trials and aggregates the outcomes.
+ * <p>
+ * Trials are executed in chunks on a {@link MonteCarloEngine}; by default the process-wide
+ * {@link MonteCarloEngine#shared()} engine, with at most {@code threads} chunks of this simulation in
+ * flight at a time.
+ */
 public class MonteCarloSimulator<T> {
+    public static final long DEFAULT_CHUNK_SIZE = 1 << 16;
+
     private final MonteCarloExperiment<T> experiment;
     private final long totalTrials;
-    private final Consumer<Double> progressCallback;
+    private Consumer<Double> progressCallback;
+    private SimulationMetricsListener metricsListener;
     private final int threads;
     private final long seedBase;
-    private final AtomicLong lastReportedPercent = new AtomicLong(-1);
+    private final long chunkSize;
+    private MonteCarloEngine engine = MonteCarloEngine.shared();
+    private int priority;
+    private Path checkpointFile;
+    private Duration checkpointInterval;
+    private Duration timeBudget;
+    private final Set<SimulationJob<T, ?>> activeJobs = ConcurrentHashMap.newKeySet();
 
     public MonteCarloSimulator(MonteCarloExperiment<T> experiment, long totalTrials, long seedBase) {
         this(experiment, totalTrials, seedBase, Runtime.getRuntime().availableProcessors());
     }
 
     public MonteCarloSimulator(MonteCarloExperiment<T> experiment, long totalTrials, long seedBase, int threads) {
+        this(experiment, totalTrials, seedBase, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize number of trials a worker claims at a time; smaller chunks balance uneven trial
+     *                  costs better, larger chunks reduce scheduling and merging overhead
+     */
+    public MonteCarloSimulator(MonteCarloExperiment<T> experiment, long totalTrials, long seedBase, int threads,
+                               long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
         this.experiment = experiment;
         this.totalTrials = totalTrials;
-        this.progressCallback = null;
         this.seedBase = seedBase;
         this.threads = threads;
+        this.chunkSize = chunkSize;
     }
 
-    public <R> MonteCarloResult<R> run(MonteCarloAggregator<T, R> prototypeAggregator) throws InterruptedException {
-        ForkJoinPool pool = new ForkJoinPool(threads);
-        CountDownLatch latch = new CountDownLatch(threads);
-        AtomicLong completed = new AtomicLong(0);
-        @SuppressWarnings("unchecked")
-        MonteCarloAggregator<T, R>[] partials = new MonteCarloAggregator[threads];
-
-        long trialsPerThread = totalTrials / threads;
-        long remainder = totalTrials % threads;
-
-        for (int i = 0; i < threads; i++) {
-            final int threadIndex = i;
-            final long trials = trialsPerThread + (i < remainder ? 1 : 0);
-            final MonteCarloAggregator<T, R> localAgg = createAggregatorInstance(prototypeAggregator);
-            partials[threadIndex] = localAgg;
-
-            pool.execute(() -> {
-                SplittableRandom rnd = new SplittableRandom(seedBase + threadIndex);
-                long localCompleted = 0;
-                for (long j = 0; j < trials; j++) {
-                    T value = experiment.runTrial(rnd);
-                    localAgg.accumulate(value);
-                    localCompleted++;
-
-                    if ((localCompleted % 100_000) == 0) {
-                        long done = completed.addAndGet(100_000);
-                        long percent = (done * 100) / totalTrials;
-                        if (percent > lastReportedPercent.get()) {
-                            if (lastReportedPercent.compareAndSet(lastReportedPercent.get(), percent)) {
-                                reportProgress((double) percent);
-                            }
-                        }
-                    }
-                }
-                completed.addAndGet(trials - localCompleted);
-                latch.countDown();
-            });
+    /**
+     * Runs this simulation on {@code engine} instead of the shared engine.
+     */
+    public MonteCarloSimulator<T> setEngine(MonteCarloEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    /**
+     * Receives the percentage of completed trials, in whole percents, instead of the console progress
+     * bar. It is called from a timer thread a few times per second, never from the trial loop.
+     */
+    public MonteCarloSimulator<T> setProgressCallback(Consumer<Double> callback) {
+        this.progressCallback = callback;
+        return this;
+    }
+
+    /**
+     * Receives per-chunk, combine and completion metrics of every run.
+     * The same metrics are also emitted as JFR events in the {@code Monte Carlo} category.
+     */
+    public MonteCarloSimulator<T> setMetricsListener(SimulationMetricsListener listener) {
+        this.metricsListener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the scheduling priority of this simulation's chunks; higher values run first.
+     */
+    public MonteCarloSimulator<T> setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Periodically saves completed work to {@code file} so that a killed run can be resumed.
+     * <p>
+     * If {@code file} exists when a run starts, the run resumes from it and produces the same result as
+     * an uninterrupted run with the same seed. The file is deleted when the run completes. The
+     * aggregator must implement {@link MonteCarloAggregator#writeState} and
+     * {@link MonteCarloAggregator#readState}.
+     *
+     * @param interval minimum time between two checkpoints
+     */
+    public MonteCarloSimulator<T> setCheckpoint(Path file, Duration interval) {
+        this.checkpointFile = file;
+        this.checkpointInterval = interval;
+        return this;
+    }
+
+    /**
+     * Limits every run to a wall-clock budget. When the budget runs out, workers stop claiming new
+     * chunks and the run returns the merged result of the chunks completed so far;
+     * {@link MonteCarloResult#getSamples()} reports how many trials they ran. Chunk size bounds how far
+     * past the budget a run can go.
+     */
+    public MonteCarloSimulator<T> setTimeBudget(Duration budget) {
+        this.timeBudget = budget;
+        return this;
+    }
+
+    /**
+     * Gracefully stops every run of this simulator that is in progress. Each run completes normally with
+     * the merged result of its completed chunks, as if its time budget had run out.
+     * <p>
+     * Cancelling a future returned by {@link #runAsync} also stops its workers between chunks, but
+     * discards the result.
+     */
+    public void stop() {
+        for (SimulationJob<T, ?> job : activeJobs) {
+            job.stop();
         }
+    }
 
-        latch.await();
-        pool.shutdown();
-        reportProgress(100.0);
-        MonteCarloAggregator<T, R> finalAgg = createAggregatorInstance(prototypeAggregator);
-        for (MonteCarloAggregator<T, R> part : partials) {
-            finalAgg.combine(part);
+    /**
+     * Runs the simulation, giving every chunk a new instance of {@code prototypeAggregator}'s class.
+     * The class needs a public no-arg constructor; aggregators that need configuration are run through
+     * {@link #run(Supplier)}.
+     */
+    public <R> MonteCarloResult<R> run(MonteCarloAggregator<T, R> prototypeAggregator) throws InterruptedException {
+        return run(factoryOf(prototypeAggregator));
+    }
+
+    /**
+     * Runs the simulation, giving every chunk its own aggregator from {@code aggregatorFactory}.
+     */
+    public <R> MonteCarloResult<R> run(Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory)
+            throws InterruptedException {
+        return await(submit(newJob(aggregatorFactory)));
+    }
+
+    /**
+     * Returns the exact outcome distribution of an {@link AnalyticallyTractable} experiment without
+     * running any trials, as a fast path or as the ground truth for a simulated result. The result
+     * reports no samples and a standard error of zero.
+     *
+     * @throws IllegalArgumentException if the experiment is not analytically tractable
+     */
+    public MonteCarloResult<Map<T, Double>> runExact() {
+        if (!(experiment instanceof AnalyticallyTractable<T> tractable)) {
+            throw new IllegalArgumentException("Experiment must implement AnalyticallyTractable");
         }
+        return new MonteCarloResult<>(tractable.getExactDistribution(), 0, 0.0);
+    }
 
+    /**
+     * Runs until the confidence interval of the mean satisfies {@code target}, treating the configured
+     * total trials as a safety cap.
+     * <p>
+     * Workers run in rounds of {@link PrecisionTarget#getCheckInterval()} trials, rounded up to whole
+     * chunks. After each round the chunk aggregators are merged and the stopping rule is evaluated; no
+     * chunk is started on a new round once the target is met. The chunks that run only depend on the
+     * target, so the result is deterministic for a given seed.
+     *
+     * @return the merged result; {@link MonteCarloResult#getSamples()} is the number of trials actually run
+     */
+    public MonteCarloResult<MeanVarianceSummary> runUntil(MonteCarloAggregator<T, MeanVarianceSummary> prototypeAggregator,
+                                                          PrecisionTarget target) throws InterruptedException {
+        return runUntil(factoryOf(prototypeAggregator), target);
+    }
+
+    public MonteCarloResult<MeanVarianceSummary> runUntil(
+            Supplier<? extends MonteCarloAggregator<T, MeanVarianceSummary>> aggregatorFactory,
+            PrecisionTarget target) throws InterruptedException {
+        return await(submit(newJob(aggregatorFactory).stopWhen(target::isMet, target.getCheckInterval())));
+    }
+
+    public <R> CompletableFuture<MonteCarloResult<R>> runAsync(MonteCarloAggregator<T, R> aggregator) {
+        return runAsync(factoryOf(aggregator));
+    }
+
+    public <R> CompletableFuture<MonteCarloResult<R>> runAsync(Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory) {
+        return submit(newJob(aggregatorFactory));
+    }
+
+    /**
+     * Starts a run that publishes a {@link SimulationSnapshot} of the merged estimate every
+     * {@code snapshotInterval}, for live dashboards or operators who may stop the run early.
+     */
+    public <R> SimulationRun<R> start(MonteCarloAggregator<T, R> aggregator, Duration snapshotInterval) {
+        return start(factoryOf(aggregator), snapshotInterval);
+    }
+
+    public <R> SimulationRun<R> start(Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory,
+                                      Duration snapshotInterval) {
+        SimulationJob<T, R> job = newJob(aggregatorFactory);
+        SimulationRun<R> run = new SimulationRun<>(job, snapshotInterval, totalTrials);
+        submit(job);
+        run.scheduleSnapshots();
+        return run;
+    }
+
+    private <R> SimulationJob<T, R> newJob(Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory) {
+        SimulationJob<T, R> job = new SimulationJob<T, R>(experiment.getClass().getName(), ChunkRunner.of(experiment),
+                aggregatorFactory, totalTrials, seedBase, chunkSize, threads, priority)
+                .onProgress(progressCallback != null ? progressCallback : this::printProgress)
+                .onMetrics(metricsListener);
         if (progressCallback == null) {
-            System.out.println();
+            job.onCompletion(System.out::println);
         }
+        if (checkpointFile != null) {
+            job.checkpointTo(checkpointFile, checkpointInterval);
+        }
+        if (timeBudget != null) {
+            job.stopAfter(timeBudget);
+        }
+        return job;
+    }
 
-        R finalResult = finalAgg.finish(totalTrials);
-        return new MonteCarloResult<>(finalResult, totalTrials);
+    private <R> CompletableFuture<MonteCarloResult<R>> submit(SimulationJob<T, R> job) {
+        activeJobs.add(job);
+        job.getFuture().whenComplete((result, error) -> activeJobs.remove(job));
+        engine.submit(job);
+        return job.getFuture();
     }
 
-    public <R> CompletableFuture<MonteCarloResult<R>> runAsync(MonteCarloAggregator<T, R> aggregator) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return run(aggregator);
-            } catch (InterruptedException e) {
-                throw new CompletionException(e);
+    /**
+     * Waits for a submitted simulation, cancelling it if the calling thread is interrupted.
+     */
+    static <R> R await(CompletableFuture<R> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-        });
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
     }
 
+    /**
+     * Creates new instances of {@code prototype}'s class through its no-arg constructor, which is looked
+     * up once here rather than for every chunk.
+     *
+     * @throws IllegalArgumentException if the class has no accessible no-arg constructor
+     */
     @SuppressWarnings("unchecked")
-    private <R> MonteCarloAggregator<T, R> createAggregatorInstance(MonteCarloAggregator<T, R> prototype) {
+    static <T, R> Supplier<MonteCarloAggregator<T, R>> factoryOf(MonteCarloAggregator<T, R> prototype) {
+        Constructor<?> constructor;
         try {
-            return (MonteCarloAggregator<T, R>) prototype.getClass().getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            throw new IllegalStateException("Aggregator must have public no-arg constructor", e);
+            constructor = prototype.getClass().getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(prototype.getClass().getName()
+                    + " has no public no-arg constructor; pass an aggregator factory instead", e);
         }
+        return () -> {
+            try {
+                return (MonteCarloAggregator<T, R>) constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Aggregator constructor failed", e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create aggregator", e);
+            }
+        };
     }
 
-    private void reportProgress(double progress) {
-        if (progressCallback != null) {
-            progressCallback.accept(progress);
-        } else {
-            int width = 50;
-            int filled = (int) (progress / 100 * width);
-            StringBuilder bar = new StringBuilder();
-            bar.append("\rProgress: [");
-            for (int i = 0; i < width; i++) {
-                bar.append(i < filled ? '=' : (i == filled ? '>' : ' '));
-            }
-            bar.append(String.format("] %.2f%%", progress));
-            System.out.print(bar);
-            System.out.flush();
+    private void printProgress(double progress) {
+        int width = 50;
+        int filled = (int) (progress / 100 * width);
+        StringBuilder bar = new StringBuilder();
+        bar.append("\rProgress: [");
+        for (int i = 0; i < width; i++) {
+            bar.append(i < filled ? '=' : (i == filled ? '>' : ' '));
         }
+        bar.append(String.format("] %.2f%%", progress));
+        System.out.print(bar);
+        System.out.flush();
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * Two outcomes produced by a single trial, such as an antithetic pair or a target and its control
+ * variate.
+ */
+public final class PairSample {
+    private final double first;
+    private final double second;
+
+    public PairSample(double first, double second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public double getFirst() {
+        return first;
+    }
+
+    public double getSecond() {
+        return second;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + ", " + second + ")";
+    }
+}
@@ -0,0 +1,137 @@
+package org.tclover.montecarlo.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs one experiment over a grid of parameters on a single {@link MonteCarloEngine}.
+ * <p>
+ * Every grid point becomes a simulation of {@code trialsPerPoint} trials. All points are submitted at
+ * once, so their chunks interleave on the engine's worker pool instead of each point starting a pool
+ * of its own.
+ * <p>
+ * With common random numbers every point is run with the same seed: chunk {@code k} of every point
+ * draws from the same random stream, so the points differ only through the parameter. Estimates of
+ * neighbouring points are then strongly positively correlated, and differences or comparisons between
+ * points are far less noisy than with independent seeds. Without common random numbers each point gets
+ * its own seed derived from the sweep seed.
+ *
+ * @param <P> the parameter type
+ * @param <T> the trial outcome type
+ */
+public class ParameterSweep<P, T> {
+    private final Function<? super P, ? extends MonteCarloExperiment<T>> factory;
+    private final List<P> grid;
+    private final long trialsPerPoint;
+    private final long seed;
+    private final int threads;
+    private boolean commonRandomNumbers;
+    private long chunkSize = MonteCarloSimulator.DEFAULT_CHUNK_SIZE;
+    private MonteCarloEngine engine = MonteCarloEngine.shared();
+    private int priority;
+
+    public ParameterSweep(Function<? super P, ? extends MonteCarloExperiment<T>> factory, List<P> grid,
+                          long trialsPerPoint, long seed) {
+        this(factory, grid, trialsPerPoint, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads maximum number of chunks of one grid point in flight at a time
+     */
+    public ParameterSweep(Function<? super P, ? extends MonteCarloExperiment<T>> factory, List<P> grid,
+                          long trialsPerPoint, long seed, int threads) {
+        if (grid.isEmpty()) {
+            throw new IllegalArgumentException("Parameter grid must not be empty");
+        }
+        if (trialsPerPoint <= 0) {
+            throw new IllegalArgumentException("Trials per point must be positive");
+        }
+        this.factory = factory;
+        this.grid = List.copyOf(grid);
+        this.trialsPerPoint = trialsPerPoint;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Feeds every grid point from the same random streams.
+     */
+    public ParameterSweep<P, T> setCommonRandomNumbers(boolean commonRandomNumbers) {
+        this.commonRandomNumbers = commonRandomNumbers;
+        return this;
+    }
+
+    public ParameterSweep<P, T> setEngine(MonteCarloEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public ParameterSweep<P, T> setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public ParameterSweep<P, T> setChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public <R> SweepResult<P, R> run(MonteCarloAggregator<T, R> prototypeAggregator) throws InterruptedException {
+        return run(MonteCarloSimulator.factoryOf(prototypeAggregator));
+    }
+
+    public <R> SweepResult<P, R> run(Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory)
+            throws InterruptedException {
+        return MonteCarloSimulator.await(runAsync(aggregatorFactory));
+    }
+
+    public <R> CompletableFuture<SweepResult<P, R>> runAsync(MonteCarloAggregator<T, R> prototypeAggregator) {
+        return runAsync(MonteCarloSimulator.factoryOf(prototypeAggregator));
+    }
+
+    /**
+     * Submits every grid point and completes when all of them have finished. Cancelling the returned
+     * future cancels the points that are still running.
+     */
+    public <R> CompletableFuture<SweepResult<P, R>> runAsync(
+            Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory) {
+        List<MonteCarloExperiment<T>> experiments = new ArrayList<>(grid.size());
+        for (P parameter : grid) {
+            experiments.add(factory.apply(parameter));
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<CompletableFuture<MonteCarloResult<R>>> futures = new ArrayList<>(grid.size());
+        for (int i = 0; i < grid.size(); i++) {
+            P parameter = grid.get(i);
+            MonteCarloExperiment<T> experiment = experiments.get(i);
+            long pointSeed = commonRandomNumbers ? seed : seeds.nextLong();
+            SimulationJob<T, R> job = new SimulationJob<T, R>(experiment.getClass().getName() + "[" + parameter + "]",
+                    ChunkRunner.of(experiment),
+                    aggregatorFactory,
+                    trialsPerPoint, pointSeed, chunkSize, threads, priority);
+            engine.submit(job);
+            futures.add(job.getFuture());
+        }
+        CompletableFuture<SweepResult<P, R>> sweep = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<MonteCarloResult<R>> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<MonteCarloResult<R>> future : futures) {
+                        results.add(future.join());
+                    }
+                    return new SweepResult<>(grid, results);
+                });
+        sweep.whenComplete((result, error) -> {
+            if (error != null) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        return sweep;
+    }
+}
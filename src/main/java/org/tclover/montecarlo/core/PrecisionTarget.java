@@ -0,0 +1,82 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * Stopping rule for precision-targeted runs: the simulation stops as soon as the confidence interval
+ * of the running mean is tight enough.
+ */
+public final class PrecisionTarget {
+    private static final long DEFAULT_CHECK_INTERVAL = 1_000_000;
+
+    private final double tolerance;
+    private final boolean relative;
+    private final double confidenceLevel;
+    private final long checkInterval;
+
+    private PrecisionTarget(double tolerance, boolean relative, double confidenceLevel, long checkInterval) {
+        if (!(tolerance > 0.0)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        if (!(confidenceLevel > 0.0 && confidenceLevel < 1.0)) {
+            throw new IllegalArgumentException("Confidence level must be between 0.0 and 1.0");
+        }
+        if (checkInterval <= 0) {
+            throw new IllegalArgumentException("Check interval must be positive");
+        }
+        this.tolerance = tolerance;
+        this.relative = relative;
+        this.confidenceLevel = confidenceLevel;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Stop once the confidence interval half-width is at most {@code halfWidth}.
+     */
+    public static PrecisionTarget halfWidth(double halfWidth, double confidenceLevel) {
+        return new PrecisionTarget(halfWidth, false, confidenceLevel, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Stop once the confidence interval half-width divided by {@code |mean|} is at most {@code relativeError}.
+     */
+    public static PrecisionTarget relativeError(double relativeError, double confidenceLevel) {
+        return new PrecisionTarget(relativeError, true, confidenceLevel, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Returns a copy of this target that checks the merged estimate every {@code trials} trials.
+     * This is also the minimum number of trials a run takes.
+     */
+    public PrecisionTarget checkEvery(long trials) {
+        return new PrecisionTarget(tolerance, relative, confidenceLevel, trials);
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public long getCheckInterval() {
+        return checkInterval;
+    }
+
+    /**
+     * Checks whether an intermediate result satisfies this target.
+     */
+    public boolean isMet(MonteCarloResult<MeanVarianceSummary> result) {
+        double[] ci = result.getConfidenceInterval(confidenceLevel);
+        double halfWidth = (ci[1] - ci[0]) / 2;
+        if (Double.isNaN(halfWidth)) {
+            return false;
+        }
+        if (relative) {
+            double mean = Math.abs(result.getMean());
+            return mean > 0.0 && halfWidth / mean <= tolerance;
+        }
+        return halfWidth <= tolerance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %.3g at %.1f%% confidence", relative ? "Relative error" : "Half-width",
+                tolerance, confidenceLevel * 100);
+    }
+}
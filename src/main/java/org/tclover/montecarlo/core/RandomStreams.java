@@ -0,0 +1,47 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * A deterministic family of independent random streams derived from a single seed.
+ * <p>
+ * Stream {@code k} is the {@code k}-th {@link SplittableRandom#split()} of a root generator seeded
+ * with the run seed. It therefore depends only on the seed and the logical stream index, never on
+ * which thread consumes it or how many threads there are, and split streams are statistically
+ * independent in a way that adjacent integer seeds are not.
+ * <p>
+ * Streams are cheapest to request in increasing index order; requesting an index below the last one
+ * replays the split chain from the root.
+ */
+public final class RandomStreams {
+    private final long seed;
+    private SplittableRandom root;
+    private long cursor;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+        this.root = new SplittableRandom(seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a fresh generator positioned at the start of stream {@code index}.
+     */
+    public synchronized SplittableRandom stream(long index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Stream index must be non-negative");
+        }
+        if (index < cursor) {
+            root = new SplittableRandom(seed);
+            cursor = 0;
+        }
+        for (; cursor < index; cursor++) {
+            root.split();
+        }
+        cursor++;
+        return root.split();
+    }
+}
@@ -0,0 +1,81 @@
+package org.tclover.montecarlo.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Sums outcomes separately for each independent randomization of a quasi-Monte Carlo point set.
+ * <p>
+ * {@link #finish} returns the mean over all randomizations and, as the variance, the sample variance
+ * of the per-randomization means; the standard error of the overall mean is
+ * {@code sqrt(variance / randomizations)}.
+ */
+final class RandomizedMeanAggregator implements MonteCarloAggregator<Double, MeanVarianceSummary> {
+    private final double[] sums;
+    private final long[] counts;
+
+    RandomizedMeanAggregator(int randomizations) {
+        this.sums = new double[randomizations];
+        this.counts = new long[randomizations];
+    }
+
+    void accumulate(int randomization, double value) {
+        sums[randomization] += value;
+        counts[randomization]++;
+    }
+
+    @Override
+    public void accumulate(Double value) {
+        throw new UnsupportedOperationException("Outcomes must be attributed to a randomization");
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<Double, MeanVarianceSummary> other) {
+        if (other instanceof RandomizedMeanAggregator o && o.sums.length == sums.length) {
+            for (int r = 0; r < sums.length; r++) {
+                sums[r] += o.sums[r];
+                counts[r] += o.counts[r];
+            }
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public MeanVarianceSummary finish(long totalSamples) {
+        int used = 0;
+        double sumOfMeans = 0.0;
+        double sumOfSquares = 0.0;
+        for (int r = 0; r < sums.length; r++) {
+            if (counts[r] > 0) {
+                double mean = sums[r] / counts[r];
+                sumOfMeans += mean;
+                sumOfSquares += mean * mean;
+                used++;
+            }
+        }
+        if (used == 0) {
+            return new MeanVarianceSummary(0.0, 0.0);
+        }
+        double mean = sumOfMeans / used;
+        double variance = used > 1 ? Math.max((sumOfSquares - used * mean * mean) / (used - 1), 0.0) : Double.NaN;
+        return new MeanVarianceSummary(mean, variance);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        for (int r = 0; r < sums.length; r++) {
+            out.writeDouble(sums[r]);
+            out.writeLong(counts[r]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        for (int r = 0; r < sums.length; r++) {
+            sums[r] = in.readDouble();
+            counts[r] = in.readLong();
+        }
+    }
+}
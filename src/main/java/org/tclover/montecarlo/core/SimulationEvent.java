@@ -0,0 +1,36 @@
+package org.tclover.montecarlo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.tclover.montecarlo.Simulation")
+@Label("Monte Carlo Simulation")
+@Category("Monte Carlo")
+@Description("Summary of a completed or stopped simulation")
+@StackTrace(false)
+final class SimulationEvent extends Event {
+    @Label("Experiment")
+    String experiment;
+
+    @Label("Trials")
+    long trials;
+
+    @Label("Elapsed")
+    @Timespan
+    long elapsed;
+
+    @Label("Trials per Second")
+    double trialsPerSecond;
+
+    @Label("Combine Time")
+    @Timespan
+    long combineTime;
+
+    @Label("Bytes per Trial")
+    double bytesPerTrial;
+}
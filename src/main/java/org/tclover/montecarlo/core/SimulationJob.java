@@ -0,0 +1,485 @@
+package org.tclover.montecarlo.core;
+
+import org.tclover.montecarlo.metrics.SimulationMetrics;
+import org.tclover.montecarlo.metrics.SimulationMetricsListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * One simulation split into fixed-size chunks of trials and executed on a {@link MonteCarloEngine}.
+ * <p>
+ * The engine repeatedly calls {@link #step()}, which claims and runs the next chunk, so a slow chunk
+ * never holds up the others. Each chunk owns its aggregator and the {@link RandomStreams} stream with
+ * its index. Completed chunks are folded into a fixed number of batches by a {@link ChunkFolder} in an
+ * order that only depends on the chunk indices, so the result is bit-for-bit the same for any number
+ * of threads and the memory held does not grow with the number of chunks.
+ * <p>
+ * Chunks are released in rounds. A plain run has a single round covering every chunk; a run with a
+ * stop rule merges the completed prefix after each round and only releases the next round if the rule
+ * is not yet satisfied.
+ * <p>
+ * With a checkpoint file configured, the batches of completed chunks are periodically written to disk,
+ * and a job that finds an existing checkpoint skips the chunks it records. Because chunk
+ * {@code k} always uses stream {@code k}, a resumed run gives the same result as an uninterrupted one.
+ * <p>
+ * {@link #stop()} (called directly or when the time budget runs out) stops workers from claiming new
+ * chunks; once the chunks in flight have finished, the job completes with the merged result of every
+ * completed chunk and the number of trials those chunks actually ran. Cancelling the future also stops
+ * workers between chunks, without producing a result.
+ * <p>
+ * Workers only record finished chunks in their own {@link JobMetrics} counters; progress is reported
+ * from a timer that sums those counters, so the trial loop never touches shared state.
+ */
+final class SimulationJob<T, R> {
+    private static final long PROGRESS_INTERVAL_MILLIS = 200;
+
+    private final String name;
+    private final ChunkRunner<T, R> runner;
+    private final Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory;
+    private final long totalTrials;
+    private final long chunkSize;
+    private final int chunkCount;
+    private final int parallelism;
+    private final int priority;
+    private final RandomStreams streams;
+    private final ChunkFolder<T, R> folder;
+    private final BitSet restored = new BitSet();
+    private final CompletableFuture<MonteCarloResult<R>> future = new CompletableFuture<>();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicBoolean completing = new AtomicBoolean();
+
+    private Predicate<MonteCarloResult<R>> stopRule;
+    private int chunksPerRound;
+    private Consumer<Double> progressListener;
+    private SimulationMetricsListener metricsListener;
+    private JobMetrics metrics;
+    private long restoredTrials;
+    private long lastReportedPercent = -1; // Guarded by progressLock
+    private final Object progressLock = new Object();
+    private Runnable completionListener = () -> {
+    };
+    private MonteCarloEngine engine;
+    private Path checkpointFile;
+    private long checkpointIntervalNanos;
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private volatile long lastCheckpoint;
+    private Duration timeBudget;
+
+    // Guarded by this
+    private int nextChunk;
+    private int liveSlots;
+    private int inFlight;
+    private boolean stopped;
+    private volatile int limit;
+
+    /**
+     * @param name identifies what is simulated in checkpoints and metrics, typically the experiment class
+     */
+    SimulationJob(String name, ChunkRunner<T, R> runner, Supplier<? extends MonteCarloAggregator<T, R>> aggregatorFactory,
+                  long totalTrials, long seed, long chunkSize, int parallelism, int priority) {
+        if (totalTrials < 0) {
+            throw new IllegalArgumentException("Total trials must be non-negative");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        long count = (totalTrials + chunkSize - 1) / chunkSize;
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many chunks; increase the chunk size");
+        }
+        this.name = name;
+        this.runner = runner;
+        this.aggregatorFactory = aggregatorFactory;
+        this.totalTrials = totalTrials;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) count;
+        this.parallelism = parallelism;
+        this.priority = priority;
+        this.streams = new RandomStreams(seed);
+        this.folder = new ChunkFolder<>(chunkCount, aggregatorFactory, this::chunkTrials);
+        this.limit = chunkCount;
+    }
+
+    /**
+     * Releases chunks in rounds of at least {@code checkInterval} trials and completes the job as soon
+     * as {@code rule} accepts the merged result of the completed rounds.
+     */
+    SimulationJob<T, R> stopWhen(Predicate<MonteCarloResult<R>> rule, long checkInterval) {
+        this.stopRule = rule;
+        this.chunksPerRound = (int) Math.min(Math.max(1, (checkInterval + chunkSize - 1) / chunkSize), chunkCount);
+        this.limit = chunksPerRound;
+        return this;
+    }
+
+    /**
+     * Writes a checkpoint to {@code file} at most every {@code interval} and deletes it once the job
+     * completes. If {@code file} already exists, the chunks it records are restored and not run again.
+     *
+     * @throws UncheckedIOException     if an existing checkpoint cannot be read
+     * @throws IllegalStateException    if an existing checkpoint belongs to a different run
+     */
+    SimulationJob<T, R> checkpointTo(Path file, Duration interval) {
+        this.checkpointFile = file;
+        this.checkpointIntervalNanos = interval.toNanos();
+        this.lastCheckpoint = System.nanoTime();
+        if (Files.exists(file)) {
+            try {
+                restoredTrials = Checkpoint.read(file, fingerprint(), folder, restored);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read checkpoint " + file, e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Stops the job once {@code budget} has elapsed since it started.
+     */
+    SimulationJob<T, R> stopAfter(Duration budget) {
+        this.timeBudget = budget;
+        return this;
+    }
+
+    SimulationJob<T, R> onProgress(Consumer<Double> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    SimulationJob<T, R> onMetrics(SimulationMetricsListener listener) {
+        this.metricsListener = listener;
+        return this;
+    }
+
+    SimulationJob<T, R> onCompletion(Runnable listener) {
+        this.completionListener = listener;
+        return this;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    CompletableFuture<MonteCarloResult<R>> getFuture() {
+        return future;
+    }
+
+    /**
+     * Metrics of the chunks run so far.
+     */
+    SimulationMetrics metrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Hands the first round of chunks to {@code engine}.
+     */
+    void start(MonteCarloEngine engine) {
+        this.engine = engine;
+        this.metrics = new JobMetrics(name, engine.getParallelism(), metricsListener);
+        if (progressListener != null) {
+            scheduleProgress();
+        }
+        if (timeBudget != null) {
+            CompletableFuture.delayedExecutor(timeBudget.toNanos(), TimeUnit.NANOSECONDS).execute(this::stop);
+        }
+        if (chunkCount == 0) {
+            complete(new MonteCarloResult<>(aggregatorFactory.get().finish(0), 0));
+            return;
+        }
+        int initialLimit = limit;
+        if (completedChunks.addAndGet(restoredBetween(0, initialLimit)) == initialLimit) {
+            endRound();
+            return;
+        }
+        int slots;
+        synchronized (this) {
+            slots = Math.min(parallelism, initialLimit - restoredBetween(0, initialLimit));
+            liveSlots = slots;
+        }
+        for (int i = 0; i < slots; i++) {
+            engine.schedule(this);
+        }
+    }
+
+    /**
+     * Runs one chunk.
+     *
+     * @return {@code true} if the engine should schedule this job again
+     */
+    boolean step() {
+        Chunk chunk = claim();
+        if (chunk == null) {
+            return false;
+        }
+        try {
+            runChunk(chunk.index, chunk.rnd);
+            boolean roundEnded = completedChunks.incrementAndGet() == limit;
+            if (release()) {
+                finishStopped();
+            } else if (roundEnded) {
+                endRound();
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return false;
+        }
+        return !future.isDone();
+    }
+
+    /**
+     * Claims the next chunk of the current round, or retires the calling slot if there is none.
+     * Streams are derived under the same lock so that they are always requested in increasing order.
+     */
+    private synchronized Chunk claim() {
+        while (nextChunk < limit && restored.get(nextChunk)) {
+            nextChunk++;
+        }
+        if (stopped || future.isDone() || nextChunk >= limit) {
+            liveSlots--;
+            return null;
+        }
+        inFlight++;
+        int chunk = nextChunk++;
+        return new Chunk(chunk, streams.stream(chunk));
+    }
+
+    /**
+     * Marks a claimed chunk as finished.
+     *
+     * @return {@code true} if the job is stopped and this was the last chunk in flight
+     */
+    private synchronized boolean release() {
+        inFlight--;
+        return stopped && inFlight == 0;
+    }
+
+    /**
+     * Stops claiming new chunks and completes the job with the chunks finished so far once the chunks
+     * in flight are done. Has no effect on a job that has already completed.
+     */
+    void stop() {
+        boolean idle;
+        synchronized (this) {
+            if (stopped || future.isDone()) {
+                return;
+            }
+            stopped = true;
+            idle = inFlight == 0;
+        }
+        if (idle) {
+            finishStopped();
+        }
+    }
+
+    private void finishStopped() {
+        if (!completing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            publish(merge(), false);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Merges the chunks completed so far without pausing the workers, for a live snapshot. The
+     * snapshot does not keep the batches, so it can be held without holding aggregators.
+     */
+    MonteCarloResult<R> snapshot() {
+        MonteCarloResult<R> merged = merge();
+        return new MonteCarloResult<>(merged.getResult(), merged.getSamples());
+    }
+
+    /**
+     * Merges copies of the batches folded so far, so the reported trial count always matches the
+     * merged aggregators. The result keeps the copies for batch means and bootstrap intervals.
+     */
+    private MonteCarloResult<R> merge() {
+        CombineEvent event = new CombineEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        ChunkPartials<T, R> batches = folder.snapshot();
+        MonteCarloAggregator<T, R> merged = batches.merge();
+        metrics.combineCompleted(event, batches.size(), System.nanoTime() - startNanos);
+        long trials = batches.getTrials();
+        return new MonteCarloResult<>(merged.finish(trials), trials, Double.NaN, batches);
+    }
+
+    private long chunkTrials(int chunk) {
+        return Math.min(chunkSize, totalTrials - (long) chunk * chunkSize);
+    }
+
+    private void runChunk(int chunk, SplittableRandom rnd) {
+        long trials = chunkTrials(chunk);
+        ChunkEvent event = new ChunkEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        long startBytes = JobMetrics.allocatedBytes();
+        MonteCarloAggregator<T, R> agg = aggregatorFactory.get();
+        runner.run(agg, rnd, (long) chunk * chunkSize, trials);
+        folder.add(chunk, agg);
+        long allocated = startBytes < 0 ? -1 : JobMetrics.allocatedBytes() - startBytes;
+        metrics.chunkCompleted(event, chunk, trials, System.nanoTime() - startNanos, allocated);
+
+        if (checkpointFile != null) {
+            maybeCheckpoint();
+        }
+    }
+
+    /**
+     * Writes a checkpoint if one is due. A worker that finds another one writing skips it rather than
+     * waiting for the file to be written.
+     */
+    private void maybeCheckpoint() {
+        if (System.nanoTime() - lastCheckpoint < checkpointIntervalNanos || !checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            if (now - lastCheckpoint < checkpointIntervalNanos || completing.get()) {
+                return;
+            }
+            writeCheckpoint();
+            lastCheckpoint = now;
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint() {
+        try {
+            Checkpoint.write(checkpointFile, fingerprint(), folder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private void scheduleProgress() {
+        CompletableFuture.delayedExecutor(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS).execute(() -> {
+            if (!future.isDone()) {
+                reportProgress();
+                scheduleProgress();
+            }
+        });
+    }
+
+    private void reportProgress() {
+        synchronized (progressLock) {
+            long done = restoredTrials + metrics.completedTrials();
+            long percent = totalTrials == 0 ? 100 : done * 100 / totalTrials;
+            if (percent > lastReportedPercent) {
+                lastReportedPercent = percent;
+                progressListener.accept((double) percent);
+            }
+        }
+    }
+
+    /**
+     * Identifies the run a checkpoint belongs to; a checkpoint is only restored into an identical run.
+     */
+    private String fingerprint() {
+        return String.join("|", name, aggregatorFactory.get().getClass().getName(),
+                Long.toString(streams.getSeed()), Long.toString(totalTrials), Long.toString(chunkSize));
+    }
+
+    private int restoredBetween(int from, int to) {
+        return to > from ? restored.get(from, to).cardinality() : 0;
+    }
+
+    /**
+     * Called by the worker that completed the last chunk of a round.
+     */
+    private void endRound() {
+        while (true) {
+            synchronized (this) {
+                if (stopped) {
+                    return; // stop() or the last chunk in flight completes the job
+                }
+            }
+            int roundLimit = limit;
+            MonteCarloResult<R> result = merge();
+            if (roundLimit == chunkCount || stopRule.test(result)) {
+                complete(result);
+                return;
+            }
+            int nextLimit = Math.min(roundLimit + chunksPerRound, chunkCount);
+            limit = nextLimit;
+            // Chunks restored from a checkpoint count as completed; if they fill the round, end it now
+            if (completedChunks.addAndGet(restoredBetween(roundLimit, nextLimit)) == nextLimit) {
+                continue;
+            }
+            int slots;
+            synchronized (this) {
+                int pending = nextLimit - nextChunk - restoredBetween(nextChunk, nextLimit);
+                slots = Math.max(0, Math.min(parallelism, pending) - liveSlots);
+                liveSlots += slots;
+            }
+            for (int i = 0; i < slots; i++) {
+                engine.schedule(this);
+            }
+            return;
+        }
+    }
+
+    private void complete(MonteCarloResult<R> result) {
+        if (completing.compareAndSet(false, true)) {
+            publish(result, true);
+        }
+    }
+
+    /**
+     * Delivers the result. A finished job deletes its checkpoint; a stopped job saves one so that it
+     * can be resumed later.
+     */
+    private void publish(MonteCarloResult<R> result, boolean finished) {
+        if (checkpointFile != null) {
+            // Waits for a periodic checkpoint in progress, so that it cannot overwrite this one
+            checkpointLock.lock();
+            try {
+                if (finished) {
+                    Files.deleteIfExists(checkpointFile);
+                } else {
+                    writeCheckpoint();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete checkpoint " + checkpointFile, e);
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+        if (progressListener != null) {
+            reportProgress();
+        }
+        metrics.completed();
+        completionListener.run();
+        future.complete(result);
+    }
+
+    private static final class Chunk {
+        final int index;
+        final SplittableRandom rnd;
+
+        Chunk(int index, SplittableRandom rnd) {
+            this.index = index;
+            this.rnd = rnd;
+        }
+    }
+}
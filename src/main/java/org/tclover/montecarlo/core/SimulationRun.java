@@ -0,0 +1,84 @@
+package org.tclover.montecarlo.core;
+
+import org.tclover.montecarlo.metrics.SimulationMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle to a running simulation that publishes periodic {@link SimulationSnapshot}s.
+ * <p>
+ * Snapshots merge the aggregators of completed chunks on a timer, so they never lock or pause the
+ * workers. The publisher is hot: subscribers receive the snapshots taken after they subscribe, and a
+ * subscriber that falls behind skips snapshots rather than slowing the run down. The last snapshot
+ * carries the final result, after which the publisher completes.
+ *
+ * @param <R> the aggregated result type
+ */
+public final class SimulationRun<R> implements Flow.Publisher<SimulationSnapshot<R>> {
+    private final SimulationJob<?, R> job;
+    private final Duration interval;
+    private final long totalTrials;
+    private final long startNanos = System.nanoTime();
+    private final SubmissionPublisher<SimulationSnapshot<R>> publisher = new SubmissionPublisher<>();
+
+    SimulationRun(SimulationJob<?, R> job, Duration interval, long totalTrials) {
+        this.job = job;
+        this.interval = interval;
+        this.totalTrials = totalTrials;
+        job.getFuture().whenComplete((result, error) -> {
+            if (error != null) {
+                publisher.closeExceptionally(error);
+            } else {
+                publisher.offer(new SimulationSnapshot<>(result, totalTrials, elapsed(), true), (s, item) -> false);
+                publisher.close();
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SimulationSnapshot<R>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * The final result, completed when the run finishes or is stopped.
+     */
+    public CompletableFuture<MonteCarloResult<R>> getResult() {
+        return job.getFuture();
+    }
+
+    /**
+     * Stops the run early; the result merges the chunks completed so far.
+     */
+    public void stop() {
+        job.stop();
+    }
+
+    /**
+     * Runtime metrics of the chunks completed so far.
+     */
+    public SimulationMetrics getMetrics() {
+        return job.metrics();
+    }
+
+    void scheduleSnapshots() {
+        CompletableFuture.delayedExecutor(interval.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (job.getFuture().isDone()) {
+                return;
+            }
+            MonteCarloResult<R> estimate = job.snapshot();
+            if (!job.getFuture().isDone()) {
+                publisher.offer(new SimulationSnapshot<>(estimate, totalTrials, elapsed(), false), (s, item) -> false);
+                scheduleSnapshots();
+            }
+        });
+    }
+
+    private Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,68 @@
+package org.tclover.montecarlo.core;
+
+import java.time.Duration;
+
+/**
+ * An intermediate estimate published while a simulation is running.
+ * <p>
+ * The estimate merges every chunk completed when the snapshot was taken, so it is a valid Monte Carlo
+ * result over {@link #getTrials()} trials.
+ *
+ * @param <R> the aggregated result type
+ */
+public final class SimulationSnapshot<R> {
+    private final MonteCarloResult<R> result;
+    private final long totalTrials;
+    private final Duration elapsed;
+    private final boolean last;
+
+    SimulationSnapshot(MonteCarloResult<R> result, long totalTrials, Duration elapsed, boolean last) {
+        this.result = result;
+        this.totalTrials = totalTrials;
+        this.elapsed = elapsed;
+        this.last = last;
+    }
+
+    /**
+     * The merged estimate so far; numeric accessors such as
+     * {@link MonteCarloResult#getConfidenceInterval(double)} work as on a final result.
+     */
+    public MonteCarloResult<R> getResult() {
+        return result;
+    }
+
+    public R getEstimate() {
+        return result.getResult();
+    }
+
+    public long getTrials() {
+        return result.getSamples();
+    }
+
+    public long getTotalTrials() {
+        return totalTrials;
+    }
+
+    /**
+     * Fraction of the configured trials completed, between 0.0 and 1.0.
+     */
+    public double getProgress() {
+        return totalTrials == 0 ? 1.0 : (double) getTrials() / totalTrials;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Whether this is the final result of the run; no snapshot follows it.
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s, %.2f%%] %s", elapsed, getProgress() * 100, result);
+    }
+}
@@ -0,0 +1,25 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * An experiment whose sampling space is partitioned into strata, such as ranges of codon positions.
+ * <p>
+ * A plain trial falls into stratum {@code h} with probability {@link #getStratumWeight(int)} and then
+ * samples within it; a {@link StratifiedSimulator} instead decides itself how many trials each stratum
+ * receives and weights the per-stratum results back together.
+ */
+public interface StratifiedExperiment<T> extends MonteCarloExperiment<T> {
+
+    int getStrataCount();
+
+    /**
+     * Probability that a plain trial falls into {@code stratum}; the weights of all strata sum to 1.
+     */
+    double getStratumWeight(int stratum);
+
+    /**
+     * Runs a trial conditioned on falling into {@code stratum}.
+     */
+    T runTrial(int stratum, SplittableRandom rnd);
+}
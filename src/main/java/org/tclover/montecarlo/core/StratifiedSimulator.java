@@ -0,0 +1,234 @@
+package org.tclover.montecarlo.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs a {@link StratifiedExperiment} with stratified sampling and Neyman allocation.
+ * <p>
+ * A pilot phase spends a fraction of the trials on each stratum in proportion to its weight and
+ * measures the within-stratum standard deviation {@code s_h} of the outcomes. The remaining trials are
+ * then allocated so that every stratum ends up with trials in proportion to {@code W_h * s_h}, which
+ * minimizes the variance of the weighted estimate {@code sum(W_h * mean_h)} for a fixed budget. Strata
+ * whose outcomes barely vary receive few trials; noisy strata receive many.
+ * <p>
+ * Several outcomes can be estimated from the same trials; their within-stratum variances are summed
+ * for allocation, which suits outcomes on a common scale such as category proportions. Both phases run
+ * as ordinary chunked simulations on a {@link MonteCarloEngine}, so results are deterministic for a
+ * given seed.
+ */
+public class StratifiedSimulator<T> {
+    public static final double DEFAULT_PILOT_FRACTION = 0.1;
+
+    private final StratifiedExperiment<T> experiment;
+    private final long totalTrials;
+    private final long seed;
+    private final int threads;
+    private final double[] weights;
+    private double pilotFraction = DEFAULT_PILOT_FRACTION;
+    private long chunkSize = MonteCarloSimulator.DEFAULT_CHUNK_SIZE;
+    private MonteCarloEngine engine = MonteCarloEngine.shared();
+    private int priority;
+    private long[] allocation;
+
+    public StratifiedSimulator(StratifiedExperiment<T> experiment, long totalTrials, long seed) {
+        this(experiment, totalTrials, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public StratifiedSimulator(StratifiedExperiment<T> experiment, long totalTrials, long seed, int threads) {
+        int strata = experiment.getStrataCount();
+        if (strata <= 0) {
+            throw new IllegalArgumentException("Experiment must have at least one stratum");
+        }
+        if (totalTrials < 2L * strata) {
+            throw new IllegalArgumentException("Need at least two trials per stratum");
+        }
+        this.weights = new double[strata];
+        double total = 0.0;
+        for (int h = 0; h < strata; h++) {
+            weights[h] = experiment.getStratumWeight(h);
+            if (!(weights[h] >= 0.0)) {
+                throw new IllegalArgumentException("Stratum weights must be non-negative");
+            }
+            total += weights[h];
+        }
+        if (Math.abs(total - 1.0) > 1e-9) {
+            throw new IllegalArgumentException("Stratum weights must sum to 1, got " + total);
+        }
+        this.experiment = experiment;
+        this.totalTrials = totalTrials;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the share of trials spent on the proportional pilot phase.
+     */
+    public StratifiedSimulator<T> setPilotFraction(double pilotFraction) {
+        if (!(pilotFraction > 0.0 && pilotFraction <= 1.0)) {
+            throw new IllegalArgumentException("Pilot fraction must be in (0, 1]");
+        }
+        this.pilotFraction = pilotFraction;
+        return this;
+    }
+
+    public StratifiedSimulator<T> setEngine(MonteCarloEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public StratifiedSimulator<T> setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public StratifiedSimulator<T> setChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Number of trials each stratum received in the last run, pilot included.
+     */
+    public long[] getAllocation() {
+        return allocation == null ? null : allocation.clone();
+    }
+
+    /**
+     * Estimates the expectation of {@code outcome}.
+     */
+    public MonteCarloResult<MeanVarianceSummary> run(ToDoubleFunction<? super T> outcome) throws InterruptedException {
+        return run(List.of(outcome)).get(0);
+    }
+
+    /**
+     * Estimates the expectations of several outcomes of the same trials.
+     *
+     * @return one result per outcome. The mean is the weighted stratum mean and the variance the pooled
+     * within-stratum variance {@code sum(W_h * s_h^2)}; {@link MonteCarloResult#getStandardError()} is
+     * the stratified {@code sqrt(sum(W_h^2 * s_h^2 / n_h))}.
+     */
+    public List<MonteCarloResult<MeanVarianceSummary>> run(List<? extends ToDoubleFunction<? super T>> outcomes)
+            throws InterruptedException {
+        int strata = weights.length;
+        long pilotTrials = Math.max(2L * strata, Math.min(totalTrials, Math.round(totalTrials * pilotFraction)));
+        long[] pilot = allocate(pilotTrials - 2L * strata, weights);
+        for (int h = 0; h < strata; h++) {
+            pilot[h] += 2;
+        }
+        StratumAggregator<T> merged = runPhase(pilot, seed, outcomes);
+
+        double[] scores = new double[strata];
+        boolean varying = false;
+        for (int h = 0; h < strata; h++) {
+            double variance = 0.0;
+            for (int k = 0; k < outcomes.size(); k++) {
+                variance += merged.variance(h, k);
+            }
+            scores[h] = weights[h] * Math.sqrt(variance);
+            varying |= scores[h] > 0.0;
+        }
+        // Neyman targets for the whole budget; the main phase tops every stratum up towards its target
+        long[] target = allocate(totalTrials, varying ? scores : weights);
+        double[] deficits = new double[strata];
+        for (int h = 0; h < strata; h++) {
+            deficits[h] = Math.max(0, target[h] - pilot[h]);
+        }
+        long remaining = totalTrials - pilotTrials;
+        long[] main = remaining > 0 && Arrays.stream(deficits).sum() > 0
+                ? allocate(remaining, deficits) : new long[strata];
+        if (Arrays.stream(main).sum() > 0) {
+            merged.combine(runPhase(main, new SplittableRandom(seed).nextLong(), outcomes));
+        }
+
+        allocation = new long[strata];
+        long samples = 0;
+        for (int h = 0; h < strata; h++) {
+            allocation[h] = merged.count(h);
+            samples += allocation[h];
+        }
+        List<MonteCarloResult<MeanVarianceSummary>> results = new ArrayList<>();
+        for (int k = 0; k < outcomes.size(); k++) {
+            double mean = 0.0;
+            double pooledVariance = 0.0;
+            double errorVariance = 0.0;
+            for (int h = 0; h < strata; h++) {
+                double variance = merged.variance(h, k);
+                mean += weights[h] * merged.mean(h, k);
+                pooledVariance += weights[h] * variance;
+                errorVariance += weights[h] * weights[h] * variance / merged.count(h);
+            }
+            results.add(new MonteCarloResult<>(new MeanVarianceSummary(mean, pooledVariance), samples,
+                    Math.sqrt(errorVariance)));
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code trials[h]} trials in each stratum {@code h}. Trials are laid out stratum after stratum,
+     * so a chunk covers a contiguous range of trials within one or a few strata.
+     */
+    private StratumAggregator<T> runPhase(long[] trials, long phaseSeed,
+                                          List<? extends ToDoubleFunction<? super T>> outcomes)
+            throws InterruptedException {
+        long[] offsets = new long[trials.length + 1];
+        for (int h = 0; h < trials.length; h++) {
+            offsets[h + 1] = offsets[h] + trials[h];
+        }
+        SimulationJob<T, StratumAggregator<T>> job = new SimulationJob<T, StratumAggregator<T>>(
+                experiment.getClass().getName() + "#stratified",
+                (aggregator, rnd, firstTrial, count) ->
+                        runStrata((StratumAggregator<T>) aggregator, offsets, rnd, firstTrial, count),
+                () -> new StratumAggregator<>(trials.length, outcomes),
+                offsets[trials.length], phaseSeed, chunkSize, threads, priority);
+        engine.submit(job);
+        return MonteCarloSimulator.await(job.getFuture()).getResult();
+    }
+
+    private void runStrata(StratumAggregator<T> aggregator, long[] offsets, SplittableRandom rnd, long firstTrial,
+                           long count) {
+        long end = firstTrial + count;
+        int found = Arrays.binarySearch(offsets, firstTrial);
+        int stratum = found >= 0 ? found : -found - 2;
+        // Empty strata share their offset with the next one and are stepped over
+        for (long t = firstTrial; t < end; stratum++) {
+            long stop = Math.min(end, offsets[stratum + 1]);
+            for (; t < stop; t++) {
+                aggregator.accumulate(stratum, experiment.runTrial(stratum, rnd));
+            }
+        }
+    }
+
+    /**
+     * Splits {@code n} trials in proportion to {@code scores} by largest remainder.
+     */
+    static long[] allocate(long n, double[] scores) {
+        double total = Arrays.stream(scores).sum();
+        long[] counts = new long[scores.length];
+        double[] remainders = new double[scores.length];
+        long assigned = 0;
+        for (int h = 0; h < scores.length; h++) {
+            double exact = n * scores[h] / total;
+            counts[h] = (long) Math.floor(exact);
+            remainders[h] = exact - counts[h];
+            assigned += counts[h];
+        }
+        for (long left = n - assigned; left > 0; left--) {
+            int best = 0;
+            for (int h = 1; h < scores.length; h++) {
+                if (remainders[h] > remainders[best]) {
+                    best = h;
+                }
+            }
+            counts[best]++;
+            remainders[best] = -1.0;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,78 @@
+package org.tclover.montecarlo.core;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-stratum sums and sums of squares of several numeric outcomes of a trial.
+ * {@link #finish} returns the merged aggregator itself.
+ */
+final class StratumAggregator<T> implements MonteCarloAggregator<T, StratumAggregator<T>> {
+    private final List<? extends ToDoubleFunction<? super T>> outcomes;
+    private final long[] counts;
+    private final double[][] sums;
+    private final double[][] sumSqs;
+
+    StratumAggregator(int strata, List<? extends ToDoubleFunction<? super T>> outcomes) {
+        this.outcomes = outcomes;
+        this.counts = new long[strata];
+        this.sums = new double[strata][outcomes.size()];
+        this.sumSqs = new double[strata][outcomes.size()];
+    }
+
+    void accumulate(int stratum, T value) {
+        double[] sum = sums[stratum];
+        double[] sumSq = sumSqs[stratum];
+        for (int k = 0; k < sum.length; k++) {
+            double x = outcomes.get(k).applyAsDouble(value);
+            sum[k] += x;
+            sumSq[k] += x * x;
+        }
+        counts[stratum]++;
+    }
+
+    @Override
+    public void accumulate(T value) {
+        throw new UnsupportedOperationException("Outcomes must be attributed to a stratum");
+    }
+
+    @Override
+    public void combine(MonteCarloAggregator<T, StratumAggregator<T>> other) {
+        if (other instanceof StratumAggregator<T> o && o.counts.length == counts.length) {
+            for (int h = 0; h < counts.length; h++) {
+                counts[h] += o.counts[h];
+                for (int k = 0; k < sums[h].length; k++) {
+                    sums[h][k] += o.sums[h][k];
+                    sumSqs[h][k] += o.sumSqs[h][k];
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Incompatible aggregator type");
+        }
+    }
+
+    @Override
+    public StratumAggregator<T> finish(long totalSamples) {
+        return this;
+    }
+
+    long count(int stratum) {
+        return counts[stratum];
+    }
+
+    double mean(int stratum, int outcome) {
+        return counts[stratum] == 0 ? 0.0 : sums[stratum][outcome] / counts[stratum];
+    }
+
+    /**
+     * Unbiased sample variance of {@code outcome} within {@code stratum}; 0 with fewer than two trials.
+     */
+    double variance(int stratum, int outcome) {
+        long n = counts[stratum];
+        if (n < 2) {
+            return 0.0;
+        }
+        double mean = sums[stratum][outcome] / n;
+        return Math.max((sumSqs[stratum][outcome] - n * mean * mean) / (n - 1), 0.0);
+    }
+}
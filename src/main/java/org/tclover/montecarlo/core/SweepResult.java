@@ -0,0 +1,61 @@
+package org.tclover.montecarlo.core;
+
+import java.util.List;
+
+/**
+ * Results of a {@link ParameterSweep}, one row per grid point in grid order.
+ *
+ * @param <P> the parameter type
+ * @param <R> the aggregated result type
+ */
+public final class SweepResult<P, R> {
+    private final List<P> parameters;
+    private final List<MonteCarloResult<R>> results;
+
+    SweepResult(List<P> parameters, List<MonteCarloResult<R>> results) {
+        this.parameters = List.copyOf(parameters);
+        this.results = List.copyOf(results);
+    }
+
+    public int size() {
+        return parameters.size();
+    }
+
+    public P getParameter(int index) {
+        return parameters.get(index);
+    }
+
+    public MonteCarloResult<R> getResult(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Returns the result of the first grid point equal to {@code parameter}.
+     *
+     * @throws IllegalArgumentException if the parameter is not in the grid
+     */
+    public MonteCarloResult<R> getResult(P parameter) {
+        int index = parameters.indexOf(parameter);
+        if (index < 0) {
+            throw new IllegalArgumentException("Parameter not in grid: " + parameter);
+        }
+        return results.get(index);
+    }
+
+    public List<P> getParameters() {
+        return parameters;
+    }
+
+    public List<MonteCarloResult<R>> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            table.append(parameters.get(i)).append('\t').append(results.get(i)).append(System.lineSeparator());
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package org.tclover.montecarlo.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * The trial loop shared by every way of running a chunk of trials.
+ */
+public final class TrialRunner {
+    private static final int BATCH_SIZE = 1024;
+
+    private TrialRunner() {
+    }
+
+    /**
+     * Runs {@code trials} trials of {@code experiment} into {@code aggregator}. When both are primitive,
+     * trials are produced and reduced a whole buffer at a time so that no result is boxed and batch
+     * kernels can vectorize across trials.
+     */
+    public static <T, R> void run(MonteCarloExperiment<T> experiment, MonteCarloAggregator<T, R> aggregator,
+                                  SplittableRandom rnd, long trials) {
+        if (experiment instanceof DoubleMonteCarloExperiment e && aggregator instanceof DoubleMonteCarloAggregator<?> a) {
+            double[] buffer = new double[(int) Math.min(BATCH_SIZE, trials)];
+            for (long done = 0; done < trials; ) {
+                int length = (int) Math.min(buffer.length, trials - done);
+                e.runBatch(rnd, buffer, length);
+                a.accumulateBatch(buffer, length);
+                done += length;
+            }
+        } else if (experiment instanceof BooleanMonteCarloExperiment e && aggregator instanceof BooleanMonteCarloAggregator<?> a) {
+            boolean[] buffer = new boolean[(int) Math.min(BATCH_SIZE, trials)];
+            for (long done = 0; done < trials; ) {
+                int length = (int) Math.min(buffer.length, trials - done);
+                e.runBatch(rnd, buffer, length);
+                a.accumulateBatch(buffer, length);
+                done += length;
+            }
+        } else {
+            for (long j = 0; j < trials; j++) {
+                aggregator.accumulate(experiment.runTrial(rnd));
+            }
+        }
+    }
+}
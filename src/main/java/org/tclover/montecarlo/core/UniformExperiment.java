@@ -0,0 +1,21 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * An experiment whose trial outcome is a deterministic function of a fixed number of independent
+ * uniform draws on {@code [0, 1)}.
+ * <p>
+ * Exposing the function rather than only the sampled outcome lets variance reduction techniques
+ * choose the points it is evaluated at, for example pairing each point with its mirror image.
+ */
+public interface UniformExperiment {
+
+    /**
+     * Number of uniform draws one trial consumes.
+     */
+    int dimension();
+
+    /**
+     * Evaluates one trial at {@code u}, an array of {@link #dimension()} values in {@code [0, 1)}.
+     */
+    double evaluate(double[] u);
+}
@@ -0,0 +1,41 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * A {@link MeanVarianceSummary} of an estimator that uses variance reduction.
+ * <p>
+ * {@link #variance} is the per-trial variance of the reduced estimator, so standard errors and
+ * confidence intervals computed from it are those of the reduced estimate.
+ */
+public class VarianceReducedSummary extends MeanVarianceSummary {
+    public final double varianceReductionFactor;
+
+    /**
+     * @param varianceReductionFactor variance of plain sampling divided by the variance of this
+     *                                estimator, at the same number of experiment evaluations
+     */
+    public VarianceReducedSummary(double mean, double variance, double varianceReductionFactor) {
+        super(mean, variance);
+        this.varianceReductionFactor = varianceReductionFactor;
+    }
+
+    /**
+     * Creates a summary whose reduction factor is {@code plainVariance / variance}.
+     *
+     * @param plainVariance variance plain sampling would have per trial if it spent the same number of
+     *                      experiment evaluations as one trial of this estimator
+     */
+    public static VarianceReducedSummary fromPlainVariance(double mean, double variance, double plainVariance) {
+        double factor;
+        if (variance == 0.0) {
+            factor = plainVariance == 0.0 ? 1.0 : Double.POSITIVE_INFINITY;
+        } else {
+            factor = plainVariance / variance;
+        }
+        return new VarianceReducedSummary(mean, variance, factor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Variance reduction: %.2fx", super.toString(), varianceReductionFactor);
+    }
+}
@@ -0,0 +1,76 @@
+package org.tclover.montecarlo.core;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Importance sampling estimates of the probability of each category of an enum outcome.
+ * <p>
+ * The probability of a category is the average over all trials of {@code weight * [outcome == category]};
+ * its standard error follows from the per-trial variance of that product.
+ *
+ * @param <K> the category type
+ */
+public final class WeightedProportions<K extends Enum<K>> {
+    private final Class<K> type;
+    private final long samples;
+    private final double[] weightSums;
+    private final double[] weightSqSums;
+    private final double effectiveSampleSize;
+
+    public WeightedProportions(Class<K> type, long samples, double[] weightSums, double[] weightSqSums,
+                               double effectiveSampleSize) {
+        this.type = type;
+        this.samples = samples;
+        this.weightSums = weightSums;
+        this.weightSqSums = weightSqSums;
+        this.effectiveSampleSize = effectiveSampleSize;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public double getProportion(K category) {
+        return samples == 0 ? 0.0 : weightSums[category.ordinal()] / samples;
+    }
+
+    public double getStandardError(K category) {
+        if (samples <= 1) {
+            return Double.NaN;
+        }
+        double p = getProportion(category);
+        double variance = Math.max(weightSqSums[category.ordinal()] / samples - p * p, 0.0);
+        return Math.sqrt(variance / samples);
+    }
+
+    public double[] getConfidenceInterval(K category, double confidenceLevel) {
+        double stdErr = getStandardError(category);
+        if (Double.isNaN(stdErr)) {
+            return new double[]{Double.NaN, Double.NaN};
+        }
+        double z = MonteCarloResult.zScore(confidenceLevel);
+        double p = getProportion(category);
+        return new double[]{p - z * stdErr, p + z * stdErr};
+    }
+
+    /**
+     * Kish's {@code (sum w)^2 / sum w^2} over all trials.
+     */
+    public double getEffectiveSampleSize() {
+        return effectiveSampleSize;
+    }
+
+    public Map<K, Double> toMap() {
+        Map<K, Double> proportions = new EnumMap<>(type);
+        for (K category : type.getEnumConstants()) {
+            proportions.put(category, getProportion(category));
+        }
+        return proportions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Effective sample size: %.1f", toMap(), effectiveSampleSize);
+    }
+}
@@ -0,0 +1,33 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * Outcome of an importance-sampled trial together with its likelihood ratio.
+ * <p>
+ * The weight is the density of the outcome under the target distribution divided by its density under
+ * the proposal the trial was actually drawn from, so that the weighted average of the outcomes is an
+ * unbiased estimate of the target expectation.
+ *
+ * @param <T> the outcome type
+ */
+public final class WeightedSample<T> {
+    private final T value;
+    private final double weight;
+
+    public WeightedSample(T value, double weight) {
+        this.value = value;
+        this.weight = weight;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return value + " (weight " + weight + ")";
+    }
+}
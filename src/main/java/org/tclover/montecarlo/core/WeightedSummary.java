@@ -0,0 +1,25 @@
+package org.tclover.montecarlo.core;
+
+/**
+ * A {@link MeanVarianceSummary} of importance-sampled outcomes.
+ * <p>
+ * {@link #mean} is the average of {@code weight * outcome} and {@link #variance} its per-trial variance,
+ * so standard errors and confidence intervals computed from it are those of the importance sampling
+ * estimate.
+ */
+public class WeightedSummary extends MeanVarianceSummary {
+    public final double effectiveSampleSize;
+
+    /**
+     * @param effectiveSampleSize Kish's {@code (sum w)^2 / sum w^2} of the weights
+     */
+    public WeightedSummary(double mean, double variance, double effectiveSampleSize) {
+        super(mean, variance);
+        this.effectiveSampleSize = effectiveSampleSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Effective sample size: %.1f", super.toString(), effectiveSampleSize);
+    }
+}
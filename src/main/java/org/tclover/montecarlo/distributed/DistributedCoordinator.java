@@ -0,0 +1,525 @@
+package org.tclover.montecarlo.distributed;
+
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.RandomStreams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs simulations on worker processes that connect over TCP.
+ * <p>
+ * The trial space is cut into the same fixed-size chunks as {@link MonteCarloSimulator}, chunk
+ * {@code k} using stream {@code k} of {@link RandomStreams}, and consecutive chunks are grouped into
+ * ranges. Each worker is kept busy with as many ranges as it has threads, counting ranges of an earlier
+ * run that it is still finishing, and sends back the serialized aggregator of every range it finishes.
+ * Range aggregators are merged in range order once all of them have arrived, so the result depends only
+ * on the seed and the chunking, not on how many workers took part or which of them ran which range.
+ * <p>
+ * A worker whose connection breaks, or that stays silent for longer than its heartbeat allows, is
+ * dropped and its unfinished ranges are handed to the remaining workers. Workers may join at any time,
+ * including during a run; a run with no workers waits for one to connect. Runs execute one at a time.
+ * Messages to a worker are written by a thread of its own, so a slow connection holds up neither the
+ * coordinator nor the other workers.
+ *
+ * @see DistributedWorker
+ */
+public final class DistributedCoordinator implements AutoCloseable {
+    public static final int DEFAULT_CHUNKS_PER_RANGE = 64;
+    private static final long BYE_TIMEOUT_MILLIS = 1_000;
+
+    private final ServerSocket server;
+    private final List<WorkerConnection> workers = new ArrayList<>();
+    private long chunkSize = MonteCarloSimulator.DEFAULT_CHUNK_SIZE;
+    private int chunksPerRange = DEFAULT_CHUNKS_PER_RANGE;
+
+    // Guarded by this
+    private Run<?, ?> run;
+    private int nextRunId;
+    private boolean closed;
+
+    /**
+     * Listens for workers on {@code port}; 0 picks a free port, see {@link #getPort()}.
+     */
+    public DistributedCoordinator(int port) throws IOException {
+        this.server = new ServerSocket(port);
+        Thread acceptor = new Thread(this::acceptWorkers, "montecarlo-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Sets the number of trials per chunk; see {@link MonteCarloSimulator}.
+     */
+    public synchronized DistributedCoordinator setChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of chunks sent to a worker at a time. Larger ranges mean fewer messages; smaller
+     * ranges lose less work when a worker dies and balance uneven workers better.
+     */
+    public synchronized DistributedCoordinator setChunksPerRange(int chunksPerRange) {
+        if (chunksPerRange <= 0) {
+            throw new IllegalArgumentException("Chunks per range must be positive");
+        }
+        this.chunksPerRange = chunksPerRange;
+        return this;
+    }
+
+    public synchronized int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Waits until at least {@code count} workers are connected.
+     */
+    public synchronized void awaitWorkers(int count, Duration timeout) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (workers.size() < count) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException(workers.size() + " of " + count + " workers connected");
+            }
+            wait(Math.max(1, remaining / 1_000_000));
+        }
+    }
+
+    /**
+     * Runs {@code totalTrials} trials of the simulation described by {@code definition} on the connected
+     * workers and returns the merged result. If the calling thread is interrupted, the run is abandoned.
+     *
+     * @throws IllegalStateException if a worker fails to run a range, or another run is in progress
+     */
+    public <T, R> MonteCarloResult<R> run(Class<? extends SimulationDefinition<T, R>> definition, long totalTrials,
+                                          long seed) throws InterruptedException {
+        Run<T, R> current;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Coordinator is closed");
+            }
+            if (run != null) {
+                throw new IllegalStateException("Another run is in progress");
+            }
+            try {
+                current = new Run<>(nextRunId++, Protocol.instantiate(definition.getName()), totalTrials, seed,
+                        chunkSize, chunksPerRange);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Simulation definition must have public no-arg constructor", e);
+            }
+            if (current.remaining == 0) {
+                return current.merge();
+            }
+            run = current;
+            dispatch();
+        }
+        try {
+            return current.future.get();
+        } catch (InterruptedException e) {
+            abandon(current, e);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Distributed run failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops accepting workers, tells connected workers to exit and fails a run in progress.
+     */
+    @Override
+    public void close() throws IOException {
+        List<WorkerConnection> connected;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (run != null) {
+                abandon(run, new IllegalStateException("Coordinator closed"));
+            }
+            connected = new ArrayList<>(workers);
+            workers.clear();
+        }
+        server.close();
+        for (WorkerConnection worker : connected) {
+            worker.sendBye();
+        }
+        for (WorkerConnection worker : connected) {
+            worker.closeAfterBye(BYE_TIMEOUT_MILLIS);
+        }
+    }
+
+    private void acceptWorkers() {
+        while (true) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return; // Server socket closed
+            }
+            Thread reader = new Thread(() -> serve(socket), "montecarlo-coordinator-" + socket.getRemoteSocketAddress());
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    /**
+     * Reads messages from one worker until its connection ends.
+     */
+    private void serve(Socket socket) {
+        WorkerConnection worker;
+        try {
+            socket.setSoTimeout(Protocol.WORKER_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            worker = new WorkerConnection(socket);
+        } catch (IOException e) {
+            closeQuietly(socket);
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                worker.close();
+                return;
+            }
+            workers.add(worker);
+            notifyAll();
+            dispatch();
+        }
+        try {
+            while (true) {
+                byte type = worker.in.readByte();
+                switch (type) {
+                    case Protocol.HEARTBEAT -> {
+                    }
+                    case Protocol.RESULT -> {
+                        int runId = worker.in.readInt();
+                        int range = worker.in.readInt();
+                        byte[] state = new byte[worker.in.readInt()];
+                        worker.in.readFully(state);
+                        onResult(worker, runId, range, state);
+                    }
+                    case Protocol.ERROR -> {
+                        int runId = worker.in.readInt();
+                        int range = worker.in.readInt();
+                        String message = worker.in.readUTF();
+                        onError(worker, runId, range, message);
+                    }
+                    default -> throw new IOException("Unexpected message type " + type);
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // Worker exited or connection closed
+        } catch (IOException e) {
+            // Timed out or sent garbage; treat it as dead
+        } finally {
+            onDisconnect(worker);
+        }
+    }
+
+    private synchronized void onResult(WorkerConnection worker, int runId, int range, byte[] state) {
+        worker.inFlight--;
+        if (run == null || run.id != runId) {
+            dispatch();
+            return; // Result of an earlier run; the worker has a thread free for the current one
+        }
+        worker.assigned.remove(range);
+        if (run.partials[range] != null) {
+            dispatch();
+            return; // A range that was reassigned and finished twice
+        }
+        run.partials[range] = state;
+        if (--run.remaining == 0) {
+            Run<?, ?> finished = run;
+            run = null;
+            clearAssignments();
+            CompletableFuture.runAsync(finished::complete);
+        } else {
+            dispatch();
+        }
+    }
+
+    private synchronized void onError(WorkerConnection worker, int runId, int range, String message) {
+        worker.inFlight--;
+        if (run != null && run.id == runId) {
+            abandon(run, new IllegalStateException("Worker failed on range " + range + ": " + message));
+        } else {
+            dispatch();
+        }
+    }
+
+    private synchronized void onDisconnect(WorkerConnection worker) {
+        worker.close();
+        if (!workers.remove(worker)) {
+            return;
+        }
+        if (run != null) {
+            for (int range : worker.assigned) {
+                if (run.partials[range] == null) {
+                    run.pending.addFirst(range);
+                }
+            }
+        }
+        worker.assigned.clear();
+        dispatch();
+    }
+
+    /**
+     * Hands pending ranges to workers with free capacity. Called with the lock held; the messages are
+     * only queued here and written by the workers' writer threads.
+     */
+    private void dispatch() {
+        if (run == null) {
+            return;
+        }
+        for (WorkerConnection worker : workers) {
+            while (!run.pending.isEmpty() && worker.inFlight < worker.threads) {
+                if (worker.runId != run.id) {
+                    worker.sendJob(run);
+                }
+                int range = run.pending.pollFirst();
+                worker.sendRange(run, range);
+                worker.assigned.add(range);
+                worker.inFlight++;
+            }
+        }
+    }
+
+    private synchronized void abandon(Run<?, ?> abandoned, Throwable cause) {
+        if (run == abandoned) {
+            run = null;
+            clearAssignments();
+        }
+        abandoned.future.completeExceptionally(cause);
+    }
+
+    /**
+     * Forgets which worker runs which range of the finished run. The workers' in-flight counts are kept
+     * until their results arrive, so that busy workers are not handed more ranges than they have threads.
+     */
+    private void clearAssignments() {
+        for (WorkerConnection worker : workers) {
+            worker.assigned.clear();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * State of one run. Everything but the immutable fields is guarded by the coordinator.
+     */
+    private static final class Run<T, R> {
+        final int id;
+        final SimulationDefinition<T, R> definition;
+        final long totalTrials;
+        final long seed;
+        final long chunkSize;
+        final int chunkCount;
+        final int chunksPerRange;
+        final byte[][] partials;
+        final ArrayDeque<Integer> pending = new ArrayDeque<>();
+        final CompletableFuture<MonteCarloResult<R>> future = new CompletableFuture<>();
+        int remaining;
+
+        Run(int id, SimulationDefinition<T, R> definition, long totalTrials, long seed, long chunkSize,
+            int chunksPerRange) {
+            if (totalTrials < 0) {
+                throw new IllegalArgumentException("Total trials must be non-negative");
+            }
+            long chunks = (totalTrials + chunkSize - 1) / chunkSize;
+            if (chunks > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many chunks; increase the chunk size");
+            }
+            this.id = id;
+            this.definition = definition;
+            this.totalTrials = totalTrials;
+            this.seed = seed;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) chunks;
+            this.chunksPerRange = chunksPerRange;
+            int ranges = (int) ((chunks + chunksPerRange - 1) / chunksPerRange);
+            this.partials = new byte[ranges][];
+            for (int i = 0; i < ranges; i++) {
+                pending.add(i);
+            }
+            this.remaining = ranges;
+        }
+
+        int firstChunk(int range) {
+            return range * chunksPerRange;
+        }
+
+        int endChunk(int range) {
+            return (int) Math.min((long) (range + 1) * chunksPerRange, chunkCount);
+        }
+
+        void complete() {
+            try {
+                future.complete(merge());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        MonteCarloResult<R> merge() {
+            MonteCarloAggregator<T, R> merged = definition.createAggregator();
+            for (byte[] state : partials) {
+                MonteCarloAggregator<T, R> partial = definition.createAggregator();
+                try {
+                    Protocol.deserialize(state, partial);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Corrupt range result", e);
+                }
+                merged.combine(partial);
+            }
+            return new MonteCarloResult<>(merged.finish(totalTrials), totalTrials);
+        }
+    }
+
+    /**
+     * A connected worker. The send methods only queue messages, so they never block; a writer thread of
+     * the connection writes them in order.
+     */
+    private static final class WorkerConnection {
+        private static final Message BYE = out -> out.writeByte(Protocol.BYE);
+
+        final Socket socket;
+        final DataInputStream in;
+        final int threads;
+        // Guarded by the coordinator
+        final Set<Integer> assigned = new HashSet<>(); // Ranges of the current run
+        int inFlight; // Ranges of any run sent and not yet answered
+        int runId = -1;
+        private final DataOutputStream out;
+        private final BlockingQueue<Message> outbox = new LinkedBlockingQueue<>();
+        private final Thread writer;
+
+        WorkerConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != Protocol.MAGIC || in.readInt() != Protocol.VERSION) {
+                throw new IOException("Not a compatible worker: " + socket.getRemoteSocketAddress());
+            }
+            this.threads = Math.max(1, in.readInt());
+            this.writer = new Thread(this::writeMessages, "montecarlo-coordinator-writer-"
+                    + socket.getRemoteSocketAddress());
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        void sendJob(Run<?, ?> run) {
+            int id = run.id;
+            String definition = run.definition.getClass().getName();
+            outbox.add(out -> {
+                out.writeByte(Protocol.JOB);
+                out.writeInt(id);
+                out.writeUTF(definition);
+                out.writeLong(run.seed);
+                out.writeLong(run.totalTrials);
+                out.writeLong(run.chunkSize);
+            });
+            runId = id;
+        }
+
+        void sendRange(Run<?, ?> run, int range) {
+            int id = run.id;
+            int firstChunk = run.firstChunk(range);
+            int endChunk = run.endChunk(range);
+            outbox.add(out -> {
+                out.writeByte(Protocol.RANGE);
+                out.writeInt(id);
+                out.writeInt(range);
+                out.writeInt(firstChunk);
+                out.writeInt(endChunk);
+            });
+        }
+
+        /**
+         * Queues the goodbye; the writer thread ends after writing it.
+         */
+        void sendBye() {
+            outbox.add(BYE);
+        }
+
+        /**
+         * Waits up to {@code millis} for the goodbye to be written, then closes the connection.
+         */
+        void closeAfterBye(long millis) {
+            try {
+                writer.join(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            close();
+        }
+
+        void close() {
+            writer.interrupt();
+            closeQuietly(socket);
+        }
+
+        private void writeMessages() {
+            try {
+                while (true) {
+                    Message message = outbox.take();
+                    message.writeTo(out);
+                    if (message == BYE || outbox.isEmpty()) {
+                        out.flush();
+                    }
+                    if (message == BYE) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Connection closed
+            } catch (IOException e) {
+                // The reader thread sees the broken connection and reassigns the worker's ranges
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private interface Message {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,214 @@
+package org.tclover.montecarlo.distributed;
+
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.RandomStreams;
+import org.tclover.montecarlo.core.TrialRunner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker process of a {@link DistributedCoordinator}.
+ * <p>
+ * Connects to the coordinator, runs the ranges of chunks it is sent on a fixed number of threads and
+ * sends back the serialized aggregator of each range. Every chunk is run with its own stream of
+ * {@link RandomStreams}, exactly as {@link org.tclover.montecarlo.core.MonteCarloSimulator} would.
+ * <p>
+ * Usage: {@code java -cp <classpath> org.tclover.montecarlo.distributed.DistributedWorker host port [threads]}
+ */
+public final class DistributedWorker implements AutoCloseable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeat;
+    private volatile Job job;
+
+    public DistributedWorker(String host, int port, int threads) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.executor = Executors.newFixedThreadPool(threads, daemon("montecarlo-worker"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("montecarlo-worker-heartbeat"));
+        synchronized (out) {
+            out.writeInt(Protocol.MAGIC);
+            out.writeInt(Protocol.VERSION);
+            out.writeInt(threads);
+            out.flush();
+        }
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, Protocol.HEARTBEAT_INTERVAL_MILLIS,
+                Protocol.HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DistributedWorker host port [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        try (DistributedWorker worker = new DistributedWorker(args[0], Integer.parseInt(args[1]), threads)) {
+            worker.run();
+        }
+    }
+
+    /**
+     * Serves the coordinator until it says goodbye or the connection is lost.
+     */
+    public void run() throws IOException {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case Protocol.JOB -> job = new Job(in.readInt(), in.readUTF(), in.readLong(), in.readLong(),
+                            in.readLong());
+                    case Protocol.RANGE -> {
+                        int runId = in.readInt();
+                        int range = in.readInt();
+                        int firstChunk = in.readInt();
+                        int endChunk = in.readInt();
+                        Job current = job;
+                        executor.execute(() -> runRange(current, runId, range, firstChunk, endChunk));
+                    }
+                    case Protocol.BYE -> {
+                        return;
+                    }
+                    default -> throw new IOException("Unexpected message type " + type);
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // Coordinator went away
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        heartbeat.shutdownNow();
+        executor.shutdownNow();
+        socket.close();
+    }
+
+    private void runRange(Job current, int runId, int range, int firstChunk, int endChunk) {
+        byte[] state;
+        try {
+            if (current == null || current.runId != runId) {
+                throw new IllegalStateException("Range received before its job");
+            }
+            state = Protocol.serialize(current.run(firstChunk, endChunk));
+        } catch (Throwable t) {
+            sendError(runId, range, t);
+            return;
+        }
+        try {
+            synchronized (out) {
+                out.writeByte(Protocol.RESULT);
+                out.writeInt(runId);
+                out.writeInt(range);
+                out.writeInt(state.length);
+                out.write(state);
+                out.flush();
+            }
+        } catch (IOException e) {
+            closeQuietly(); // Connection lost; the read loop ends and the coordinator reassigns the range
+        }
+    }
+
+    private void sendError(int runId, int range, Throwable error) {
+        try {
+            synchronized (out) {
+                out.writeByte(Protocol.ERROR);
+                out.writeInt(runId);
+                out.writeInt(range);
+                out.writeUTF(String.valueOf(error));
+                out.flush();
+            }
+        } catch (IOException e) {
+            closeQuietly();
+        }
+    }
+
+    private void sendHeartbeat() {
+        try {
+            synchronized (out) {
+                out.writeByte(Protocol.HEARTBEAT);
+                out.flush();
+            }
+        } catch (IOException e) {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A run as described by the coordinator. The definition and experiment are created on first use so
+     * that a definition that fails to load is reported as an error of the range that needed it.
+     */
+    private static final class Job {
+        final int runId;
+        final String definitionClass;
+        final long seed;
+        final long totalTrials;
+        final long chunkSize;
+        private SimulationDefinition<Object, Object> definition;
+        private MonteCarloExperiment<Object> experiment;
+
+        Job(int runId, String definitionClass, long seed, long totalTrials, long chunkSize) {
+            this.runId = runId;
+            this.definitionClass = definitionClass;
+            this.seed = seed;
+            this.totalTrials = totalTrials;
+            this.chunkSize = chunkSize;
+        }
+
+        private synchronized void load() throws Exception {
+            if (definition == null) {
+                SimulationDefinition<Object, Object> loaded = Protocol.instantiate(definitionClass);
+                experiment = loaded.createExperiment();
+                definition = loaded;
+            }
+        }
+
+        /**
+         * Runs chunks {@code [firstChunk, endChunk)} and merges them in chunk order.
+         */
+        MonteCarloAggregator<Object, Object> run(int firstChunk, int endChunk) throws Exception {
+            load();
+            RandomStreams streams = new RandomStreams(seed);
+            MonteCarloAggregator<Object, Object> merged = definition.createAggregator();
+            for (int chunk = firstChunk; chunk < endChunk; chunk++) {
+                MonteCarloAggregator<Object, Object> partial = definition.createAggregator();
+                TrialRunner.run(experiment, partial, streams.stream(chunk),
+                        Protocol.chunkTrials(totalTrials, chunkSize, chunk));
+                merged.combine(partial);
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.tclover.montecarlo.distributed;
+
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format shared by {@link DistributedCoordinator} and {@link DistributedWorker}.
+ * <p>
+ * A worker opens the connection with {@code HELLO}: magic, version and the number of ranges it runs
+ * at a time. After that every message is a type byte followed by its fields:
+ * <pre>
+ * JOB       coordinator -> worker  int run, UTF definition class, long seed, long total trials, long chunk size
+ * RANGE     coordinator -> worker  int run, int range, int first chunk, int end chunk (exclusive)
+ * RESULT    worker -> coordinator  int run, int range, int length, byte[length] aggregator state
+ * ERROR     worker -> coordinator  int run, int range, UTF message
+ * HEARTBEAT worker -> coordinator
+ * BYE       coordinator -> worker
+ * </pre>
+ */
+final class Protocol {
+    static final int MAGIC = 0x4D434457; // "MCDW"
+    static final int VERSION = 1;
+
+    static final byte JOB = 1;
+    static final byte RANGE = 2;
+    static final byte RESULT = 3;
+    static final byte ERROR = 4;
+    static final byte HEARTBEAT = 5;
+    static final byte BYE = 6;
+
+    static final long HEARTBEAT_INTERVAL_MILLIS = 1_000;
+    /**
+     * A worker that sends nothing, not even a heartbeat, for this long is considered dead.
+     */
+    static final int WORKER_TIMEOUT_MILLIS = 10_000;
+
+    private Protocol() {
+    }
+
+    static long chunkTrials(long totalTrials, long chunkSize, int chunk) {
+        return Math.min(chunkSize, totalTrials - (long) chunk * chunkSize);
+    }
+
+    static byte[] serialize(MonteCarloAggregator<?, ?> aggregator) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            aggregator.writeState(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void deserialize(byte[] state, MonteCarloAggregator<?, ?> aggregator) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            aggregator.readState(in);
+        }
+    }
+
+    static <T extends SimulationDefinition<?, ?>> T instantiate(String className) throws ReflectiveOperationException {
+        @SuppressWarnings("unchecked")
+        T definition = (T) Class.forName(className).asSubclass(SimulationDefinition.class)
+                .getDeclaredConstructor().newInstance();
+        return definition;
+    }
+}
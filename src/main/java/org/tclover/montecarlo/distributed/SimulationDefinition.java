@@ -0,0 +1,23 @@
+package org.tclover.montecarlo.distributed;
+
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+
+/**
+ * Describes a simulation that worker processes can rebuild on their own.
+ * <p>
+ * Only the class name travels over the wire: the coordinator and every worker instantiate the class
+ * through its public no-arg constructor, so an implementation must be on the classpath of every
+ * process and carry its parameters itself. The aggregator must support
+ * {@link MonteCarloAggregator#writeState} and {@link MonteCarloAggregator#readState}.
+ */
+public interface SimulationDefinition<T, R> {
+
+    /**
+     * Creates the experiment. Called once per run on each worker; the instance is shared by the
+     * worker's threads.
+     */
+    MonteCarloExperiment<T> createExperiment() throws Exception;
+
+    MonteCarloAggregator<T, R> createAggregator();
+}
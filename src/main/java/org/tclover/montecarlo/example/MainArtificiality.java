@@ -1,6 +1,6 @@
 package org.tclover.montecarlo.example;
 
-import org.tclover.montecarlo.aggregator.MeanVarianceAggregator;
+import org.tclover.montecarlo.aggregator.HistogramAggregator;
 import org.tclover.montecarlo.core.MeanVarianceSummary;
 import org.tclover.montecarlo.core.MonteCarloSimulator;
 import org.tclover.montecarlo.experiment.ArtificialityDetectionExperiment;
@@ -16,7 +16,7 @@ public class MainArtificiality {
 
         var experiment = new ArtificialityDetectionExperiment(cmsFlu);
         var simulator = new MonteCarloSimulator<>(experiment, trials, seed);
-        var aggregator = new MeanVarianceAggregator();
+        var aggregator = new HistogramAggregator();
 
         var result = simulator.runAsync(aggregator).get();
 
@@ -27,9 +27,12 @@ public class MainArtificiality {
 
         double[] ci = result.getConfidenceInterval(0.95);
         System.out.printf("95%% Confidence Interval: [%.6f, %.6f]%n", ci[0], ci[1]);
+        System.out.printf("Median: %.6f, 95th percentile: %.6f, 99th percentile: %.6f%n",
+                result.getQuantile(0.5), result.getQuantile(0.95), result.getQuantile(0.99));
 
         double threshold = 0.15;
         double score = result.getMean();
+        System.out.printf("P(score >= %.2f): %.6f%n", threshold, 1.0 - result.getCdf(threshold));
 
         if (score >= threshold) {
             System.out.println("Conclusion: Likely ARTIFICIAL");
@@ -0,0 +1,51 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.DoubleSummaryAggregator;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.ParameterSweep;
+import org.tclover.montecarlo.core.SweepResult;
+import org.tclover.montecarlo.experiment.BirthdayParadoxExperiment;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sweeps the birthday paradox over group sizes 1..100, once with independent seeds and once with
+ * common random numbers. The true probability grows with the group size; with common random numbers
+ * the estimated curve is smooth, while independent seeds leave it jagged wherever neighbouring
+ * probabilities are close.
+ */
+public class MainBirthdaySweep {
+    public static void main(String[] args) throws Exception {
+        long trials = 2_000_000L;
+        long seed = 42L;
+        List<Integer> groupSizes = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+        SweepResult<Integer, MeanVarianceSummary> independent =
+                new ParameterSweep<>(size -> new BirthdayParadoxExperiment(size, 365), groupSizes, trials, seed)
+                        .run(new DoubleSummaryAggregator());
+        SweepResult<Integer, MeanVarianceSummary> common =
+                new ParameterSweep<>(size -> new BirthdayParadoxExperiment(size, 365), groupSizes, trials, seed)
+                        .setCommonRandomNumbers(true)
+                        .run(new DoubleSummaryAggregator());
+
+        System.out.printf("%5s %12s %12s%n", "Size", "independent", "common");
+        for (int i = 0; i < groupSizes.size(); i += 5) {
+            System.out.printf("%5d %12.6f %12.6f%n", groupSizes.get(i), independent.getResult(i).getMean(),
+                    common.getResult(i).getMean());
+        }
+        System.out.printf("Decreasing steps: independent %d, common %d%n", decreasingSteps(independent),
+                decreasingSteps(common));
+    }
+
+    private static int decreasingSteps(SweepResult<Integer, MeanVarianceSummary> sweep) {
+        int steps = 0;
+        for (int i = 1; i < sweep.size(); i++) {
+            if (sweep.getResult(i).getMean() < sweep.getResult(i - 1).getMean()) {
+                steps++;
+            }
+        }
+        return steps;
+    }
+}
@@ -1,11 +1,14 @@
 package org.tclover.montecarlo.example;
 
 import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
 import org.tclover.montecarlo.core.MonteCarloResult;
 import org.tclover.montecarlo.core.MonteCarloSimulator;
 import org.tclover.montecarlo.core.MutationType;
 import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -17,19 +20,31 @@ public class MainCovidMutation {
         RealisticMutationExperiment experiment =
                 new RealisticMutationExperiment(RealisticMutationExperiment.loadExampleSarsRNA());
 
-        MonteCarloSimulator<MutationType> simulator = new MonteCarloSimulator<>(experiment, trials, seed);
+        // Resumes from covid-mutation.ckpt if a previous run was interrupted
+        MonteCarloSimulator<MutationType> simulator = new MonteCarloSimulator<>(experiment, trials, seed)
+                .setCheckpoint(Path.of("covid-mutation.ckpt"), Duration.ofMinutes(1));
 
-        CompletableFuture<MonteCarloResult<Map<MutationType, Long>>> futureResult = simulator.runAsync(new MutationStatisticsAggregator());
+        Map<MutationType, Double> exact = simulator.runExact().getResult();
 
-        MonteCarloResult<Map<MutationType, Long>> result = futureResult.get();
+        CompletableFuture<MonteCarloResult<CategoryCounts<MutationType>>> futureResult = simulator.runAsync(new MutationStatisticsAggregator());
+
+        MonteCarloResult<CategoryCounts<MutationType>> result = futureResult.get();
 
         Map<MutationType, Long> counts = result.getResult();
         long total = result.getSamples();
 
+        Map<MutationType, double[]> intervals = result.getSimultaneousIntervals(0.95);
+
         System.out.printf("Samples: %,d%n", total);
         for (var entry : counts.entrySet()) {
             double percent = 100.0 * entry.getValue() / total;
-            System.out.printf("%-10s: %.2f%%%n", entry.getKey(), percent);
+            double[] ci = intervals.get(entry.getKey());
+            System.out.printf("%-10s: %.4f%% (simultaneous 95%% CI %.4f%% - %.4f%%, exact %.4f%%)%n", entry.getKey(),
+                    percent, 100 * ci[0], 100 * ci[1], 100 * exact.get(entry.getKey()));
         }
+
+        double[] nonsense = result.getBatchMeansInterval(
+                r -> r.getResult().get(MutationType.NONSENSE) / (double) r.getSamples(), 0.95);
+        System.out.printf("NONSENSE batch means 95%% CI: %.4f%% - %.4f%%%n", 100 * nonsense[0], 100 * nonsense[1]);
     }
 }
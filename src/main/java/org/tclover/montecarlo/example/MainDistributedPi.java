@@ -0,0 +1,76 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.DoubleSummaryAggregator;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloAggregator;
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.distributed.DistributedCoordinator;
+import org.tclover.montecarlo.distributed.DistributedWorker;
+import org.tclover.montecarlo.distributed.SimulationDefinition;
+import org.tclover.montecarlo.experiment.PiEstimationExperiment;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates π on worker JVMs started on this machine, killing one of them part-way through to show
+ * its work being reassigned. Pass the number of workers as the first argument (default 3).
+ */
+public class MainDistributedPi {
+
+    public static class PiSimulation implements SimulationDefinition<Double, MeanVarianceSummary> {
+        @Override
+        public MonteCarloExperiment<Double> createExperiment() {
+            return new PiEstimationExperiment();
+        }
+
+        @Override
+        public MonteCarloAggregator<Double, MeanVarianceSummary> createAggregator() {
+            return new DoubleSummaryAggregator();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workerCount = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        long trials = 2_000_000_000L;
+        long seed = 42L;
+
+        List<Process> workers = new ArrayList<>();
+        try (DistributedCoordinator coordinator = new DistributedCoordinator(0)) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        DistributedWorker.class.getName(), "localhost", Integer.toString(coordinator.getPort()))
+                        .inheritIO()
+                        .start());
+            }
+            coordinator.awaitWorkers(workerCount, Duration.ofSeconds(30));
+            System.out.printf("%d workers connected on port %d%n", workerCount, coordinator.getPort());
+
+            if (workerCount > 1) {
+                CompletableFuture.delayedExecutor(2, TimeUnit.SECONDS).execute(() -> {
+                    System.out.println("Killing one worker");
+                    workers.get(0).destroyForcibly();
+                });
+            }
+
+            long start = System.nanoTime();
+            MonteCarloResult<MeanVarianceSummary> result = coordinator.run(PiSimulation.class, trials, seed);
+            double[] ci = result.getConfidenceInterval(0.95);
+
+            System.out.printf("Estimated π = %.8f%n", 4 * result.getResult().mean);
+            System.out.printf("True π: %.8f%n", Math.PI);
+            System.out.printf("95%% CI for π: [%.8f, %.8f]%n", 4 * ci[0], 4 * ci[1]);
+            System.out.printf("Trials: %,d in %.1f s%n", result.getSamples(), (System.nanoTime() - start) / 1e9);
+        } finally {
+            for (Process worker : workers) {
+                worker.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.experiment.GenomeStore;
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Estimates the mutation spectrum of the codons of every record of a FASTA file, which is memory-mapped
+ * and packed two bits per base. Pass the file as the first argument and optionally the number of trials.
+ */
+public class MainFastaMutation {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: MainFastaMutation file.fasta [trials]");
+            System.exit(2);
+        }
+        long trials = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        long seed = 42;
+
+        long start = System.nanoTime();
+        GenomeStore genome = GenomeStore.map(Path.of(args[0]));
+        System.out.printf("Loaded %,d codons in %d records in %.1f s%n", genome.getCodonCount(),
+                genome.getRecords().size(), (System.nanoTime() - start) / 1e9);
+        for (GenomeStore.Record record : genome.getRecords()) {
+            System.out.println("  " + record);
+        }
+
+        MonteCarloSimulator<MutationType> simulator =
+                new MonteCarloSimulator<>(new RealisticMutationExperiment(genome), trials, seed);
+        Map<MutationType, Double> exact = simulator.runExact().getResult();
+        MonteCarloResult<CategoryCounts<MutationType>> result = simulator.run(new MutationStatisticsAggregator());
+
+        System.out.printf("Samples: %,d%n", result.getSamples());
+        for (MutationType type : result.getResult().getCategories()) {
+            System.out.printf("%-10s: %.4f%% (exact %.4f%%)%n", type, 100 * result.getResult().getProportion(type),
+                    100 * exact.get(type));
+        }
+    }
+}
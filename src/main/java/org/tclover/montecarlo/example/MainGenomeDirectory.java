@@ -0,0 +1,24 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.experiment.GenomeBatchPipeline;
+
+import java.nio.file.Path;
+
+/**
+ * Writes the mutation spectrum of every FASTA file of a directory to a tab-separated file, row by row
+ * as the genomes finish. Pass the directory, the output file and optionally the trials per genome.
+ */
+public class MainGenomeDirectory {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: MainGenomeDirectory directory output.tsv [trials]");
+            System.exit(2);
+        }
+        long trials = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000L;
+        long seed = 42;
+
+        long start = System.nanoTime();
+        long genomes = new GenomeBatchPipeline(Path.of(args[0]), Path.of(args[1]), trials, seed).run();
+        System.out.printf("Analysed %,d genomes in %.1f s%n", genomes, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,45 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.aggregator.WeightedMutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.core.WeightedProportions;
+import org.tclover.montecarlo.experiment.ImportanceSampledMutationExperiment;
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+
+/**
+ * Estimates the rare nonsense mutation probability of SARS-CoV-2 with plain sampling and with
+ * importance sampling that lets nonsense mutations survive selection more often.
+ */
+public class MainImportanceSampling {
+    public static void main(String[] args) throws Exception {
+        long trials = 10_000_000L;
+        long seed = 42L;
+
+        RealisticMutationExperiment experiment =
+                new RealisticMutationExperiment(RealisticMutationExperiment.loadExampleSarsRNA());
+
+        MonteCarloResult<CategoryCounts<MutationType>> plain =
+                new MonteCarloSimulator<>(experiment, trials, seed).run(new MutationStatisticsAggregator());
+        MonteCarloResult<WeightedProportions<MutationType>> weighted =
+                new MonteCarloSimulator<>(new ImportanceSampledMutationExperiment(experiment), trials, seed)
+                        .run(new WeightedMutationStatisticsAggregator());
+
+        System.out.printf("%-10s %12s %10s %12s %10s%n", "Type", "plain", "SE", "weighted", "SE");
+        for (MutationType type : MutationType.values()) {
+            double p = (double) plain.getResult().getOrDefault(type, 0L) / plain.getSamples();
+            WeightedProportions<MutationType> proportions = weighted.getResult();
+            System.out.printf("%-10s %11.5f%% %10.2e %11.5f%% %10.2e%n", type, 100 * p,
+                    Math.sqrt(p * (1 - p) / plain.getSamples()), 100 * proportions.getProportion(type),
+                    proportions.getStandardError(type));
+        }
+        double[] ci = weighted.getResult().getConfidenceInterval(MutationType.NONSENSE, 0.95);
+        System.out.printf("95%% CI for nonsense: [%.5f%%, %.5f%%]%n", 100 * ci[0], 100 * ci[1]);
+        System.out.printf("Effective sample size: %,.0f of %,d%n", weighted.getEffectiveSampleSize(),
+                weighted.getSamples());
+    }
+}
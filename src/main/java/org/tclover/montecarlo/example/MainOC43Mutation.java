@@ -1,6 +1,7 @@
 package org.tclover.montecarlo.example;
 
 import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
 import org.tclover.montecarlo.core.MonteCarloResult;
 import org.tclover.montecarlo.core.MonteCarloSimulator;
 import org.tclover.montecarlo.core.MutationType;
@@ -19,9 +20,9 @@ public class MainOC43Mutation {
 
         MonteCarloSimulator<MutationType> simulator = new MonteCarloSimulator<>(experiment, trials, seed);
 
-        CompletableFuture<MonteCarloResult<Map<MutationType, Long>>> futureResult = simulator.runAsync(new MutationStatisticsAggregator());
+        CompletableFuture<MonteCarloResult<CategoryCounts<MutationType>>> futureResult = simulator.runAsync(new MutationStatisticsAggregator());
 
-        MonteCarloResult<Map<MutationType, Long>> result = futureResult.get();
+        MonteCarloResult<CategoryCounts<MutationType>> result = futureResult.get();
 
         Map<MutationType, Long> counts = result.getResult();
         long total = result.getSamples();
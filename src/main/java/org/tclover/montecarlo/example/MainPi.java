@@ -4,8 +4,6 @@ import org.tclover.montecarlo.aggregator.DoubleSummaryAggregator;
 import org.tclover.montecarlo.core.*;
 import org.tclover.montecarlo.experiment.PiEstimationExperiment;
 
-import java.util.concurrent.CompletableFuture;
-
 public class MainPi {
     public static void main(String[] args) throws Exception {
         long trials = Integer.MAX_VALUE;
@@ -16,9 +14,10 @@ public class MainPi {
 
         MonteCarloAggregator<Double, MeanVarianceSummary> aggregator = new DoubleSummaryAggregator();
 
-        CompletableFuture<MonteCarloResult<MeanVarianceSummary>> futureResult = simulator.runAsync(aggregator);
+        // Stop once π is known to ±0.0001 (the estimator is 4 × mean); trials is only a safety cap.
+        PrecisionTarget target = PrecisionTarget.halfWidth(0.0001 / 4, 0.95);
 
-        MonteCarloResult<MeanVarianceSummary> result = futureResult.get();
+        MonteCarloResult<MeanVarianceSummary> result = simulator.runUntil(aggregator, target);
         MeanVarianceSummary summary = result.getResult();
 
         double mean = summary.mean;
@@ -28,5 +27,6 @@ public class MainPi {
         System.out.printf("Estimated π = %.8f%n", piEstimate);
         System.out.printf("True π: %.8f%n", Math.PI);
         System.out.printf("95%% CI for π: [%.8f, %.8f]%n", 4 * ci[0], 4 * ci[1]);
+        System.out.printf("Trials used: %,d%n", result.getSamples());
     }
 }
@@ -0,0 +1,47 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.BooleanMeanAggregator;
+import org.tclover.montecarlo.aggregator.HistogramAggregator;
+import org.tclover.montecarlo.aggregator.MeanVarianceAggregator;
+import org.tclover.montecarlo.core.CompositeAggregator;
+import org.tclover.montecarlo.core.CompositeResult;
+import org.tclover.montecarlo.core.HistogramSummary;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.experiment.ArtificialityDetectionExperiment;
+
+/**
+ * Collects the moments, the distribution and a tail probability of the artificiality score in a single
+ * pass over the trials.
+ */
+public class MainSinglePassStatistics {
+    public static void main(String[] args) throws Exception {
+        long trials = 100_000_000L;
+        long seed = 42L;
+        double threshold = 0.235;
+
+        var experiment = new ArtificialityDetectionExperiment(
+                new ArtificialityDetectionExperiment.CodingMutationSpectrum(0.21, 0.75, 0.04));
+
+        CompositeAggregator.Builder<Double> statistics = CompositeAggregator.builder();
+        CompositeAggregator.Handle<MeanVarianceSummary> moments = statistics.add(MeanVarianceAggregator::new);
+        // Scores lie in [0, 2): 10 mantissa bits over [2^-16, 2) resolve them to 0.1%
+        CompositeAggregator.Handle<HistogramSummary> distribution =
+                statistics.add(() -> new HistogramAggregator(10, -16, 1));
+        CompositeAggregator.Handle<MeanVarianceSummary> tail =
+                statistics.add(score -> score >= threshold, BooleanMeanAggregator::new);
+
+        MonteCarloResult<CompositeResult> result = new MonteCarloSimulator<>(experiment, trials, seed).run(statistics);
+
+        double[] ci = result.get(moments).getConfidenceInterval(0.95);
+        System.out.printf("Mean score: %.6f, 95%% CI [%.6f, %.6f]%n", result.get(moments).getMean(), ci[0], ci[1]);
+        MonteCarloResult<HistogramSummary> scores = result.get(distribution);
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99}) {
+            System.out.printf("Quantile %.2f: %.6f%n", q, scores.getQuantile(q));
+        }
+        double[] tailCi = result.get(tail).getConfidenceInterval(0.95);
+        System.out.printf("P(score >= %.3f): %.6f, 95%% CI [%.6f, %.6f]%n", threshold, result.get(tail).getMean(),
+                tailCi[0], tailCi[1]);
+    }
+}
@@ -0,0 +1,51 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.core.StratifiedSimulator;
+import org.tclover.montecarlo.experiment.RealisticMutationExperiment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares plain sampling of the SARS-CoV-2 mutation spectrum with stratified sampling over codon
+ * ranges and Neyman allocation.
+ */
+public class MainStratifiedMutation {
+    public static void main(String[] args) throws Exception {
+        long trials = 20_000_000L;
+        long seed = 42L;
+
+        RealisticMutationExperiment experiment =
+                new RealisticMutationExperiment(RealisticMutationExperiment.loadExampleSarsRNA());
+
+        MonteCarloResult<CategoryCounts<MutationType>> plain =
+                new MonteCarloSimulator<>(experiment, trials, seed).run(new MutationStatisticsAggregator());
+
+        List<ToDoubleFunction<MutationType>> outcomes = new ArrayList<>();
+        for (MutationType type : MutationType.values()) {
+            outcomes.add(t -> t == type ? 1.0 : 0.0);
+        }
+        StratifiedSimulator<MutationType> stratified = new StratifiedSimulator<>(experiment, trials, seed);
+        List<MonteCarloResult<MeanVarianceSummary>> results = stratified.run(outcomes);
+
+        System.out.printf("%-10s %12s %10s %12s %10s%n", "Type", "plain", "SE", "stratified", "SE");
+        for (MutationType type : MutationType.values()) {
+            double p = (double) plain.getResult().getOrDefault(type, 0L) / plain.getSamples();
+            MonteCarloResult<MeanVarianceSummary> result = results.get(type.ordinal());
+            System.out.printf("%-10s %11.5f%% %10.2e %11.5f%% %10.2e%n", type, 100 * p,
+                    Math.sqrt(p * (1 - p) / plain.getSamples()), 100 * result.getMean(), result.getStandardError());
+        }
+        long[] allocation = stratified.getAllocation();
+        System.out.printf("Trials per stratum: min %,d, max %,d over %d strata%n",
+                Arrays.stream(allocation).min().orElse(0), Arrays.stream(allocation).max().orElse(0),
+                allocation.length);
+    }
+}
@@ -0,0 +1,65 @@
+package org.tclover.montecarlo.example;
+
+import org.tclover.montecarlo.aggregator.AntitheticAggregator;
+import org.tclover.montecarlo.aggregator.ControlVariateAggregator;
+import org.tclover.montecarlo.aggregator.MeanVarianceAggregator;
+import org.tclover.montecarlo.core.MeanVarianceSummary;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.QuasiMonteCarloSimulator;
+import org.tclover.montecarlo.core.UniformExperiment;
+import org.tclover.montecarlo.core.VarianceReducedSummary;
+import org.tclover.montecarlo.experiment.AntitheticExperiment;
+import org.tclover.montecarlo.experiment.ArtificialityDetectionExperiment;
+import org.tclover.montecarlo.experiment.ControlVariateExperiment;
+import org.tclover.montecarlo.experiment.PiEstimationExperiment;
+
+/**
+ * Compares plain sampling with antithetic pairs, a control variate and randomized quasi-Monte Carlo on
+ * the π and artificiality experiments.
+ */
+public class MainVarianceReduction {
+    public static void main(String[] args) throws Exception {
+        long trials = 50_000_000L;
+        long seed = 42L;
+
+        PiEstimationExperiment pi = new PiEstimationExperiment();
+        // x² + y² has expectation 2/3 under uniform draws and is strongly correlated with the hit indicator
+        UniformExperiment squaredRadius = new UniformExperiment() {
+            @Override
+            public int dimension() {
+                return 2;
+            }
+
+            @Override
+            public double evaluate(double[] u) {
+                return u[0] * u[0] + u[1] * u[1];
+            }
+        };
+
+        print("π plain", new MonteCarloSimulator<>(pi, trials, seed).run(new MeanVarianceAggregator()));
+        print("π antithetic", new MonteCarloSimulator<>(new AntitheticExperiment(pi), trials / 2, seed)
+                .run(new AntitheticAggregator()));
+        print("π control variate", new MonteCarloSimulator<>(
+                new ControlVariateExperiment(pi, squaredRadius, 2.0 / 3.0), trials, seed)
+                .run(new ControlVariateAggregator()));
+        print("π shifted Sobol", new QuasiMonteCarloSimulator(pi, trials / 16, 16, seed).run());
+
+        var artificiality = new ArtificialityDetectionExperiment(
+                new ArtificialityDetectionExperiment.CodingMutationSpectrum(0.21, 0.75, 0.04));
+        print("Artificiality plain", new MonteCarloSimulator<>(artificiality, trials, seed)
+                .run(new MeanVarianceAggregator()));
+        print("Artificiality antithetic", new MonteCarloSimulator<>(new AntitheticExperiment(artificiality),
+                trials / 2, seed).run(new AntitheticAggregator()));
+        print("Artificiality Sobol", new QuasiMonteCarloSimulator(artificiality, trials / 16, 16, seed).run());
+    }
+
+    private static void print(String label, MonteCarloResult<MeanVarianceSummary> result) {
+        double[] ci = result.getConfidenceInterval(0.95);
+        System.out.printf("%-26s mean %.8f  95%% CI ±%.2e", label, result.getMean(), (ci[1] - ci[0]) / 2);
+        if (result.getResult() instanceof VarianceReducedSummary) {
+            System.out.printf("  variance reduction %.2fx", result.getVarianceReductionFactor());
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,37 @@
+package org.tclover.montecarlo.experiment;
+
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.PairSample;
+import org.tclover.montecarlo.core.UniformExperiment;
+
+import java.util.SplittableRandom;
+
+/**
+ * Antithetic sampling of a {@link UniformExperiment}: every trial evaluates the experiment at a random
+ * point {@code u} and at its mirror {@code 1 - u}.
+ * <p>
+ * For outcomes that are monotone in the draws, the two evaluations are negatively correlated and their
+ * average varies much less than a single outcome. Aggregate the pairs with
+ * {@link org.tclover.montecarlo.aggregator.AntitheticAggregator}.
+ */
+public class AntitheticExperiment implements MonteCarloExperiment<PairSample> {
+    private final UniformExperiment experiment;
+
+    public AntitheticExperiment(UniformExperiment experiment) {
+        this.experiment = experiment;
+    }
+
+    @Override
+    public PairSample runTrial(SplittableRandom rnd) {
+        double[] u = new double[experiment.dimension()];
+        for (int i = 0; i < u.length; i++) {
+            u[i] = rnd.nextDouble();
+        }
+        double first = experiment.evaluate(u);
+        for (int i = 0; i < u.length; i++) {
+            // 1 - u can round up to 1.0 for tiny u; keep the mirror inside [0, 1)
+            u[i] = Math.min(1.0 - u[i], Math.nextDown(1.0));
+        }
+        return new PairSample(first, experiment.evaluate(u));
+    }
+}
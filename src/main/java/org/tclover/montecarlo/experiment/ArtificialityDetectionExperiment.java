@@ -1,6 +1,7 @@
 package org.tclover.montecarlo.experiment;
 
-import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.DoubleMonteCarloExperiment;
+import org.tclover.montecarlo.core.UniformExperiment;
 
 import java.util.SplittableRandom;
 
@@ -8,7 +9,7 @@ import java.util.SplittableRandom;
  * Monte Carlo experiment to estimate artificiality of mutation pattern.
  * Models randomness in synthetic mutation bias for realistic variance.
  */
-public class ArtificialityDetectionExperiment implements MonteCarloExperiment<Double> {
+public class ArtificialityDetectionExperiment implements DoubleMonteCarloExperiment, UniformExperiment {
     private final double naturalSilentProb;
     private final double naturalMissenseProb;
     private final double naturalNonsenseProb;
@@ -28,10 +29,24 @@ public class ArtificialityDetectionExperiment implements MonteCarloExperiment<Do
     }
 
     @Override
-    public Double runTrial(SplittableRandom rnd) {
+    public double runTrialAsDouble(SplittableRandom rnd) {
+        return score(rnd.nextDouble(), rnd.nextDouble());
+    }
+
+    @Override
+    public int dimension() {
+        return 2;
+    }
+
+    @Override
+    public double evaluate(double[] u) {
+        return score(u[0], u[1]);
+    }
+
+    private double score(double u0, double u1) {
         // Generate synthetic mutation proportions with slight randomness
-        double syntheticSilent = 0.10 + rnd.nextDouble(-0.01, 0.01);     // 0.09–0.11
-        double syntheticMissense = 0.85 + rnd.nextDouble(-0.02, 0.02);   // 0.83–0.87
+        double syntheticSilent = 0.10 + uniform(u0, -0.01, 0.01);     // 0.09–0.11
+        double syntheticMissense = 0.85 + uniform(u1, -0.02, 0.02);   // 0.83–0.87
         double syntheticNonsense = 1.0 - syntheticSilent - syntheticMissense;
 
         // Clamp nonsense to a non-negative value to avoid artifacts
@@ -51,6 +66,15 @@ public class ArtificialityDetectionExperiment implements MonteCarloExperiment<Do
         return deltaSilent + deltaMissense + deltaNonsense;
     }
 
+    /**
+     * Maps {@code u} in [0, 1) to [origin, bound) exactly as {@link SplittableRandom#nextDouble(double, double)}
+     * maps its internal draw, so trials consume and use the stream as before.
+     */
+    private static double uniform(double u, double origin, double bound) {
+        double r = u * (bound - origin) + origin;
+        return r >= bound ? Math.nextDown(bound) : r;
+    }
+
     public static class CodingMutationSpectrum {
         double silent;
         double missense;
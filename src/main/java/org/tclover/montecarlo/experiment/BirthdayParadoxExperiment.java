@@ -1,8 +1,7 @@
 package org.tclover.montecarlo.experiment;
 
-import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.DoubleMonteCarloExperiment;
 
-import java.util.HashSet;
 import java.util.SplittableRandom;
 
 /**
@@ -14,7 +13,7 @@ import java.util.SplittableRandom;
  * Repeating this many times and averaging gives an estimate of the probability.
  * </p>
  */
-public class BirthdayParadoxExperiment implements MonteCarloExperiment<Double> {
+public class BirthdayParadoxExperiment implements DoubleMonteCarloExperiment {
     private final int groupSize;
     private final int daysInYear;
 
@@ -36,13 +35,15 @@ public class BirthdayParadoxExperiment implements MonteCarloExperiment<Double> {
      * @return 1.0 if a duplicate birthday was found, 0.0 otherwise
      */
     @Override
-    public Double runTrial(SplittableRandom rnd) {
-        HashSet<Integer> seen = new HashSet<>();
+    public double runTrialAsDouble(SplittableRandom rnd) {
+        long[] seen = new long[(daysInYear + 63) >>> 6]; // one bit per day
         for (int i = 0; i < groupSize; i++) {
             int birthday = rnd.nextInt(daysInYear); // day 0 to 364
-            if (!seen.add(birthday)) {
+            long bit = 1L << birthday;
+            if ((seen[birthday >>> 6] & bit) != 0) {
                 return 1.0; // found duplicate
             }
+            seen[birthday >>> 6] |= bit;
         }
         return 0.0; // all unique
     }
@@ -1,10 +1,10 @@
 package org.tclover.montecarlo.experiment;
 
-import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.BooleanMonteCarloExperiment;
 
 import java.util.SplittableRandom;
 
-public class CoinFlipExperiment implements MonteCarloExperiment<Boolean> {
+public class CoinFlipExperiment implements BooleanMonteCarloExperiment {
     private final double bias;
 
     public CoinFlipExperiment(double bias) {
@@ -15,7 +15,16 @@ public class CoinFlipExperiment implements MonteCarloExperiment<Boolean> {
     }
 
     @Override
-    public Boolean runTrial(SplittableRandom rnd) {
+    public boolean runTrialAsBoolean(SplittableRandom rnd) {
         return rnd.nextDouble() < bias;
     }
+
+    @Override
+    public void runBatch(SplittableRandom rnd, boolean[] out, int length) {
+        if (VectorSupport.AVAILABLE) {
+            VectorKernels.coinFlips(rnd, bias, out, length);
+        } else {
+            BooleanMonteCarloExperiment.super.runBatch(rnd, out, length);
+        }
+    }
 }
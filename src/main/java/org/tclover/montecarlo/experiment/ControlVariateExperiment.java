@@ -0,0 +1,43 @@
+package org.tclover.montecarlo.experiment;
+
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.PairSample;
+import org.tclover.montecarlo.core.UniformExperiment;
+
+import java.util.SplittableRandom;
+
+/**
+ * Evaluates a target experiment together with a control variate, an auxiliary function of the same
+ * uniform draws whose expectation is known exactly.
+ * <p>
+ * Each trial yields the target outcome and the control outcome minus its expectation.
+ * {@link org.tclover.montecarlo.aggregator.ControlVariateAggregator} estimates the optimal coefficient
+ * from the samples and subtracts the correlated part of the noise.
+ */
+public class ControlVariateExperiment implements MonteCarloExperiment<PairSample> {
+    private final UniformExperiment target;
+    private final UniformExperiment control;
+    private final double controlMean;
+
+    /**
+     * @param control     must have the same dimension as {@code target}
+     * @param controlMean exact expectation of {@code control} under uniform draws
+     */
+    public ControlVariateExperiment(UniformExperiment target, UniformExperiment control, double controlMean) {
+        if (target.dimension() != control.dimension()) {
+            throw new IllegalArgumentException("Target and control must use the same number of draws");
+        }
+        this.target = target;
+        this.control = control;
+        this.controlMean = controlMean;
+    }
+
+    @Override
+    public PairSample runTrial(SplittableRandom rnd) {
+        double[] u = new double[target.dimension()];
+        for (int i = 0; i < u.length; i++) {
+            u[i] = rnd.nextDouble();
+        }
+        return new PairSample(target.evaluate(u), control.evaluate(u) - controlMean);
+    }
+}
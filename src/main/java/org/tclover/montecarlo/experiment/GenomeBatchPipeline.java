@@ -0,0 +1,208 @@
+package org.tclover.montecarlo.experiment;
+
+import org.tclover.montecarlo.aggregator.MutationStatisticsAggregator;
+import org.tclover.montecarlo.core.CategoryCounts;
+import org.tclover.montecarlo.core.MonteCarloEngine;
+import org.tclover.montecarlo.core.MonteCarloResult;
+import org.tclover.montecarlo.core.MonteCarloSimulator;
+import org.tclover.montecarlo.core.MutationType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the mutation spectrum analysis over every FASTA file of a directory.
+ * <p>
+ * The calling thread walks the directory and parses one genome after another into a {@link GenomeStore}
+ * while the genomes parsed before it are simulated on a {@link MonteCarloEngine}. At most
+ * {@code maxInFlight} genomes are held at a time: parsing waits for a simulation to finish before it
+ * reads the next file, so memory stays bounded however many files the directory holds.
+ * <p>
+ * Every finished genome is appended to the output as a tab-separated row with its file name, record
+ * and codon counts, samples and the proportion of each {@link MutationType}, in the order the
+ * simulations finish. A genome that cannot be read or simulated gets a row with the error instead and
+ * does not stop the run. All genomes are run with the same seed, so that differences between genomes
+ * are not blurred by independent sampling noise.
+ */
+public class GenomeBatchPipeline {
+    public static final String DEFAULT_GLOB = "*.{fa,fasta,fna,fas}";
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Path directory;
+    private final Path output;
+    private final long trialsPerGenome;
+    private final long seed;
+    private final int threads;
+    private String glob = DEFAULT_GLOB;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private long chunkSize = MonteCarloSimulator.DEFAULT_CHUNK_SIZE;
+    private MonteCarloEngine engine = MonteCarloEngine.shared();
+    private int priority;
+
+    public GenomeBatchPipeline(Path directory, Path output, long trialsPerGenome, long seed) {
+        this(directory, output, trialsPerGenome, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads maximum number of chunks of one genome in flight at a time
+     */
+    public GenomeBatchPipeline(Path directory, Path output, long trialsPerGenome, long seed, int threads) {
+        if (trialsPerGenome <= 0) {
+            throw new IllegalArgumentException("Trials per genome must be positive");
+        }
+        this.directory = directory;
+        this.output = output;
+        this.trialsPerGenome = trialsPerGenome;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Selects the files of the directory to analyse, by default {@value #DEFAULT_GLOB}.
+     */
+    public GenomeBatchPipeline setGlob(String glob) {
+        this.glob = glob;
+        return this;
+    }
+
+    /**
+     * Sets how many genomes may be parsed or simulating at a time.
+     */
+    public GenomeBatchPipeline setMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Genomes in flight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public GenomeBatchPipeline setEngine(MonteCarloEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public GenomeBatchPipeline setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public GenomeBatchPipeline setChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Analyses every matching file and returns once all rows are written. If the calling thread is
+     * interrupted, the genomes still running are cancelled.
+     *
+     * @return the number of genomes written, failed ones included
+     */
+    public long run() throws IOException, InterruptedException {
+        Semaphore permits = new Semaphore(maxInFlight);
+        Set<CompletableFuture<?>> running = ConcurrentHashMap.newKeySet();
+        AtomicLong written = new AtomicLong();
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(output);
+             DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            writeHeader(writer);
+            try {
+                for (Path file : files) {
+                    if (!Files.isRegularFile(file)) {
+                        continue;
+                    }
+                    permits.acquire();
+                    if (writeError.get() != null) {
+                        permits.release();
+                        break;
+                    }
+                    CompletableFuture<MonteCarloResult<CategoryCounts<MutationType>>> simulation;
+                    GenomeStore genome = null;
+                    try {
+                        genome = GenomeStore.map(file);
+                        if (genome.getCodonCount() == 0) {
+                            throw new IllegalArgumentException("Genome has no codons");
+                        }
+                        simulation = new MonteCarloSimulator<>(new RealisticMutationExperiment(genome),
+                                trialsPerGenome, seed, threads, chunkSize)
+                                .setEngine(engine)
+                                .setPriority(priority)
+                                .setProgressCallback(progress -> {})
+                                .runAsync(new MutationStatisticsAggregator());
+                    } catch (IOException | RuntimeException e) {
+                        simulation = CompletableFuture.failedFuture(e);
+                    }
+                    CompletableFuture<?> future = simulation;
+                    GenomeStore parsed = genome;
+                    running.add(future);
+                    simulation.whenComplete((result, error) -> {
+                        try {
+                            synchronized (writer) {
+                                writeRow(writer, file, parsed, result, error);
+                            }
+                            written.incrementAndGet();
+                        } catch (IOException e) {
+                            writeError.compareAndSet(null, e);
+                        } finally {
+                            running.remove(future);
+                            permits.release();
+                        }
+                    });
+                }
+                permits.acquire(maxInFlight);
+            } catch (InterruptedException e) {
+                running.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        if (writeError.get() != null) {
+            throw writeError.get();
+        }
+        return written.get();
+    }
+
+    private static void writeHeader(BufferedWriter writer) throws IOException {
+        writer.write("file\trecords\tcodons\tsamples");
+        for (MutationType type : MutationType.values()) {
+            writer.write('\t');
+            writer.write(type.name());
+        }
+        writer.write("\terror");
+        writer.newLine();
+        writer.flush();
+    }
+
+    private static void writeRow(BufferedWriter writer, Path file, GenomeStore genome,
+                                 MonteCarloResult<CategoryCounts<MutationType>> result, Throwable error)
+            throws IOException {
+        StringBuilder row = new StringBuilder(file.getFileName().toString());
+        row.append('\t').append(genome == null ? "" : genome.getRecords().size());
+        row.append('\t').append(genome == null ? "" : genome.getCodonCount());
+        if (error == null) {
+            row.append('\t').append(result.getSamples());
+            for (MutationType type : MutationType.values()) {
+                row.append('\t').append(result.getResult().getProportion(type));
+            }
+            row.append('\t');
+        } else {
+            row.append("\t".repeat(MutationType.values().length + 1));
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            row.append('\t').append(String.valueOf(cause).replace('\t', ' ').replace('\n', ' '));
+        }
+        writer.write(row.toString());
+        writer.newLine();
+        writer.flush();
+    }
+}
@@ -0,0 +1,259 @@
+package org.tclover.montecarlo.experiment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The codons of a genome, packed two bits per base.
+ * <p>
+ * Bases are coded A=0, C=1, G=2 and T or U=3, 32 to a {@code long} with the first base in the most
+ * significant bits, so that {@link #codonAt(long)} reads a codon as a 6-bit code with its first base
+ * most significant. Any other letter, such as N or R, is flagged in a bit mask that is only allocated
+ * once such a base is seen; codons containing one are coded from {@value #AMBIGUOUS} upwards, with bit
+ * {@code p} set if the base at position {@code p} is ambiguous.
+ * <p>
+ * FASTA input is parsed byte by byte without decoding characters, from a memory-mapped file or a
+ * stream. Every record is read in frame from its first base, and bases at the end of a record that do
+ * not complete a codon are dropped, so the codons of all records follow each other without gaps.
+ */
+public final class GenomeStore {
+    static final int AMBIGUOUS = 64;
+
+    private static final int MAX_MAPPING = Integer.MAX_VALUE;
+    private static final byte SKIP = -2;
+    private static final byte OTHER = -1;
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, OTHER);
+        for (char c : new char[]{' ', '\t', '\r', '\f', 0x0B}) {
+            CODES[c] = SKIP;
+        }
+        String bases = "ACGT";
+        for (int code = 0; code < 4; code++) {
+            CODES[bases.charAt(code)] = (byte) code;
+            CODES[Character.toLowerCase(bases.charAt(code))] = (byte) code;
+        }
+        CODES['U'] = 3;
+        CODES['u'] = 3;
+    }
+
+    private final long[] packed;
+    private final long[] ambiguous;
+    private final long codonCount;
+    private final List<Record> records;
+
+    private GenomeStore(long[] packed, long[] ambiguous, long codonCount, List<Record> records) {
+        this.packed = packed;
+        this.ambiguous = ambiguous;
+        this.codonCount = codonCount;
+        this.records = Collections.unmodifiableList(records);
+    }
+
+    /**
+     * Memory-maps and parses a FASTA file, which may hold any number of records.
+     */
+    public static GenomeStore map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Parser parser = new Parser(size);
+            for (long position = 0; position < size; position += MAX_MAPPING) {
+                parser.parse(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAX_MAPPING, size - position)));
+            }
+            return parser.finish();
+        }
+    }
+
+    /**
+     * Parses FASTA records from a stream, such as a classpath resource, without closing it.
+     */
+    public static GenomeStore read(InputStream in) throws IOException {
+        Parser parser = new Parser(1 << 16);
+        byte[] buffer = new byte[1 << 16];
+        for (int n; (n = in.read(buffer)) >= 0; ) {
+            parser.parse(ByteBuffer.wrap(buffer, 0, n));
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Packs a bare sequence as a single unnamed record. Every character is a base; anything but A, C, G,
+     * T and U in either case is ambiguous.
+     */
+    public static GenomeStore of(CharSequence sequence) {
+        Parser parser = new Parser(sequence.length());
+        for (int i = 0; i < sequence.length(); i++) {
+            char c = sequence.charAt(i);
+            parser.append(c < CODES.length ? Math.max(CODES[c], OTHER) : OTHER);
+        }
+        return parser.finish();
+    }
+
+    public long getCodonCount() {
+        return codonCount;
+    }
+
+    public List<Record> getRecords() {
+        return records;
+    }
+
+    /**
+     * Code of codon {@code index}, counting over all records; see the class description.
+     */
+    public int codonAt(long index) {
+        long base = 3 * index;
+        int word = (int) (base >>> 5);
+        int shift = (int) (base & 31) << 1;
+        long bits = packed[word] << shift;
+        if (shift > 58) {
+            bits |= packed[word + 1] >>> (64 - shift);
+        }
+        if (ambiguous != null) {
+            int maskWord = (int) (base >>> 6);
+            int maskShift = (int) (base & 63);
+            long mask = ambiguous[maskWord] >>> maskShift;
+            if (maskShift > 61) {
+                mask |= ambiguous[maskWord + 1] << (64 - maskShift);
+            }
+            if ((mask & 7) != 0) {
+                return AMBIGUOUS | (int) (mask & 7);
+            }
+        }
+        return (int) (bits >>> 58);
+    }
+
+    /**
+     * A FASTA record: its header line without the leading '>' and its range of codons.
+     */
+    public static final class Record {
+        private final String name;
+        private final long firstCodon;
+        private final long codonCount;
+
+        Record(String name, long firstCodon, long codonCount) {
+            this.name = name;
+            this.firstCodon = firstCodon;
+            this.codonCount = codonCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getFirstCodon() {
+            return firstCodon;
+        }
+
+        public long getCodonCount() {
+            return codonCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%,d codons)", name, codonCount);
+        }
+    }
+
+    /**
+     * Packs bases as they are read. A header or the end of input closes the current record, dropping its
+     * incomplete last codon.
+     */
+    private static final class Parser {
+        private long[] packed;
+        private long[] ambiguous;
+        private long bases;
+        private long recordStart;
+        private String recordName;
+        private boolean lineStart = true;
+        private StringBuilder header;
+        private final List<Record> records = new ArrayList<>();
+
+        Parser(long expectedBases) {
+            this.packed = new long[Math.toIntExact((expectedBases >>> 5) + 2)];
+        }
+
+        void parse(ByteBuffer buffer) {
+            for (int i = buffer.position(), end = buffer.limit(); i < end; i++) {
+                byte b = buffer.get(i);
+                if (header != null) {
+                    if (b == '\n') {
+                        recordName = header.toString().trim();
+                        header = null;
+                        lineStart = true;
+                    } else {
+                        header.append((char) (b & 0xFF));
+                    }
+                } else if (b == '\n') {
+                    lineStart = true;
+                } else {
+                    byte code = CODES[b & 0xFF];
+                    if (code == SKIP) {
+                        continue;
+                    }
+                    if (lineStart && b == '>') {
+                        endRecord();
+                        header = new StringBuilder();
+                    } else {
+                        append(code);
+                    }
+                    lineStart = false;
+                }
+            }
+        }
+
+        void append(int code) {
+            int word = (int) (bases >>> 5);
+            if (word + 1 >= packed.length) {
+                packed = Arrays.copyOf(packed, Math.toIntExact(2L * packed.length));
+                if (ambiguous != null) {
+                    ambiguous = Arrays.copyOf(ambiguous, packed.length / 2 + 2);
+                }
+            }
+            if (code >= 0) {
+                packed[word] |= (long) code << (62 - ((bases & 31) << 1));
+            } else {
+                if (ambiguous == null) {
+                    // One bit per base, covering every base the packed words can hold
+                    ambiguous = new long[packed.length / 2 + 2];
+                }
+                ambiguous[(int) (bases >>> 6)] |= 1L << (bases & 63);
+            }
+            bases++;
+        }
+
+        private void endRecord() {
+            if (header != null) {
+                recordName = header.toString().trim();
+                header = null;
+            }
+            long codons = (bases - recordStart) / 3;
+            if (recordName != null || codons > 0) {
+                records.add(new Record(recordName == null ? "" : recordName, recordStart / 3, codons));
+            }
+            // Clear the incomplete codon so the next record is packed over zero bits
+            for (long base = recordStart + 3 * codons; base < bases; base++) {
+                packed[(int) (base >>> 5)] &= ~(3L << (62 - ((base & 31) << 1)));
+                if (ambiguous != null) {
+                    ambiguous[(int) (base >>> 6)] &= ~(1L << (base & 63));
+                }
+            }
+            bases = recordStart + 3 * codons;
+            recordStart = bases;
+            recordName = null;
+        }
+
+        GenomeStore finish() {
+            endRecord();
+            return new GenomeStore(packed, ambiguous, bases / 3, new ArrayList<>(records));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.tclover.montecarlo.experiment;
+
+import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.core.WeightedSample;
+
+import java.util.SplittableRandom;
+
+/**
+ * Importance sampling version of {@link RealisticMutationExperiment} for estimating rare outcomes.
+ * <p>
+ * Mutations are proposed exactly as in the original experiment, but survive selection with the
+ * proposal probabilities {@code q} given here instead of the real ones {@code p}. A trial whose
+ * rejected attempts had types {@code i} and whose surviving mutation has type {@code t} is weighted by
+ * the likelihood ratio {@code prod((1 - p_i) / (1 - q_i)) * p_t / q_t}, so weighted category
+ * frequencies are unbiased estimates of the real ones. Raising the survival of nonsense mutations makes
+ * them far more frequent in the sample and their probability correspondingly more precise.
+ */
+public class ImportanceSampledMutationExperiment implements MonteCarloExperiment<WeightedSample<MutationType>> {
+    public static final double DEFAULT_NONSENSE_SURVIVAL = 0.5;
+
+    private final RealisticMutationExperiment experiment;
+    private final double[] proposal = new double[MutationType.values().length];
+
+    public ImportanceSampledMutationExperiment(RealisticMutationExperiment experiment) {
+        this(experiment, RealisticMutationExperiment.survivalProbability(MutationType.MISSENSE),
+                DEFAULT_NONSENSE_SURVIVAL);
+    }
+
+    /**
+     * @param missenseSurvival proposal survival probability of missense mutations
+     * @param nonsenseSurvival proposal survival probability of nonsense mutations
+     */
+    public ImportanceSampledMutationExperiment(RealisticMutationExperiment experiment, double missenseSurvival,
+                                               double nonsenseSurvival) {
+        this.experiment = experiment;
+        proposal[MutationType.SILENT.ordinal()] = RealisticMutationExperiment.survivalProbability(MutationType.SILENT);
+        proposal[MutationType.MISSENSE.ordinal()] = missenseSurvival;
+        proposal[MutationType.NONSENSE.ordinal()] = nonsenseSurvival;
+        for (MutationType type : MutationType.values()) {
+            double p = RealisticMutationExperiment.survivalProbability(type);
+            double q = proposal[type.ordinal()];
+            // The proposal must be able to produce every outcome the real process can
+            if (!(q > 0.0 && q <= 1.0) || (p < 1.0 && q == 1.0)) {
+                throw new IllegalArgumentException("Survival probability of " + type + " must be in (0, 1)");
+            }
+        }
+    }
+
+    @Override
+    public WeightedSample<MutationType> runTrial(SplittableRandom rnd) {
+        int codon = experiment.codonAt(rnd.nextInt(experiment.codonCount()));
+        double weight = 1.0;
+        while (true) {
+            MutationType type = experiment.mutateOnce(codon, rnd);
+            if (type == null) {
+                return new WeightedSample<>(MutationType.SILENT, weight);
+            }
+            double p = RealisticMutationExperiment.survivalProbability(type);
+            double q = proposal[type.ordinal()];
+            if (rnd.nextDouble() < q) {
+                return new WeightedSample<>(type, weight * p / q);
+            }
+            weight *= (1.0 - p) / (1.0 - q);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.tclover.montecarlo.experiment;
 
-import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.DoubleMonteCarloExperiment;
+import org.tclover.montecarlo.core.UniformExperiment;
 
 import java.util.SplittableRandom;
 
@@ -27,7 +28,7 @@ import java.util.SplittableRandom;
  * The Monte Carlo simulator will compute the average of many such trials, which converges to π/4.
  * </p>
  */
-public class PiEstimationExperiment implements MonteCarloExperiment<Double> {
+public class PiEstimationExperiment implements DoubleMonteCarloExperiment, UniformExperiment {
 
 
     /**
@@ -44,9 +45,34 @@ public class PiEstimationExperiment implements MonteCarloExperiment<Double> {
      * @return 1.0 if the point is inside the circle (a "hit"), 0.0 otherwise
      */
     @Override
-    public Double runTrial(SplittableRandom rnd) {
+    public double runTrialAsDouble(SplittableRandom rnd) {
         double x = rnd.nextDouble();
         double y = rnd.nextDouble();
         return (x * x + y * y <= 1.0) ? 1.0 : 0.0;
     }
+
+    @Override
+    public int dimension() {
+        return 2;
+    }
+
+    /**
+     * Checks whether the point {@code (u[0], u[1])} lies inside the unit quarter-circle.
+     */
+    @Override
+    public double evaluate(double[] u) {
+        return (u[0] * u[0] + u[1] * u[1] <= 1.0) ? 1.0 : 0.0;
+    }
+
+    /**
+     * Runs a batch of trials, using a Vector API kernel when it is available.
+     */
+    @Override
+    public void runBatch(SplittableRandom rnd, double[] out, int length) {
+        if (VectorSupport.AVAILABLE) {
+            VectorKernels.piHits(rnd, out, length);
+        } else {
+            DoubleMonteCarloExperiment.super.runBatch(rnd, out, length);
+        }
+    }
 }
@@ -1,37 +1,116 @@
 package org.tclover.montecarlo.experiment;
 
-import org.tclover.montecarlo.core.MonteCarloExperiment;
+import org.tclover.montecarlo.core.AnalyticallyTractable;
 import org.tclover.montecarlo.core.MutationType;
+import org.tclover.montecarlo.core.StratifiedExperiment;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 
-public class RealisticMutationExperiment implements MonteCarloExperiment<MutationType> {
+/**
+ * Mutates a uniformly chosen codon of a genome and classifies the surviving mutation.
+ * <p>
+ * Codons are read as 6-bit codes from a {@link GenomeStore}, two bits per base in the order A, C, G, U.
+ * Whether substituting base {@code b} at position {@code p} of codon {@code c} is silent, missense or
+ * nonsense is read from a table of 64 x 3 x 4 outcomes computed once from the codon table, and the
+ * biased base substitution is a per-base threshold table, so a trial neither allocates nor hashes.
+ * Mutations of codons containing anything but A, C, G and U count as silent.
+ * <p>
+ * The outcome distribution only depends on how often each codon occurs, so
+ * {@link #getExactDistribution()} enumerates the 64 codons instead of sampling.
+ * <p>
+ * For stratified sampling the genome is cut into {@code strata} consecutive codon ranges of near equal
+ * length, each weighted by its share of the codons.
+ */
+public class RealisticMutationExperiment
+        implements StratifiedExperiment<MutationType>, AnalyticallyTractable<MutationType> {
+    public static final int DEFAULT_STRATA = 64;
 
-    private final String rnaSequence;
-    private final List<String> codons;
-    private final Map<String, String> codonTable;
+    private static final int AMBIGUOUS = GenomeStore.AMBIGUOUS;
+    private static final String BASES = "ACGU";
+    private static final MutationType[] OUTCOMES = buildOutcomeTable(buildCodonTable());
+    // Base b becomes SUBSTITUTES[b][0] if r < LOWER[b], SUBSTITUTES[b][1] if r < UPPER[b], else SUBSTITUTES[b][2]
+    private static final double[] LOWER = {0.50, 0.70, 0.45, 0.45};
+    private static final double[] UPPER = {0.75, 0.85, 0.75, 0.75};
+    private static final int[][] SUBSTITUTES = {
+            {2, 3, 1}, // A -> G, U, C
+            {3, 0, 2}, // C -> U, A, G
+            {0, 3, 1}, // G -> A, U, C
+            {1, 0, 2}  // U -> C, A, G
+    };
+
+    private final GenomeStore genome;
+    private final int codonCount;
+    private final int strata;
 
     public RealisticMutationExperiment(String fullRnaSequence) {
-        this.rnaSequence = fullRnaSequence.toUpperCase().replace("T", "U");
-        this.codons = splitIntoCodons(this.rnaSequence);
-        this.codonTable = buildCodonTable();
+        this(fullRnaSequence, DEFAULT_STRATA);
+    }
+
+    public RealisticMutationExperiment(String fullRnaSequence, int strata) {
+        this(GenomeStore.of(fullRnaSequence), strata);
     }
 
-    private static List<String> splitIntoCodons(String seq) {
-        List<String> result = new ArrayList<>();
-        for (int i = 0; i + 2 < seq.length(); i += 3) {
-            result.add(seq.substring(i, i + 3));
+    public RealisticMutationExperiment(GenomeStore genome) {
+        this(genome, DEFAULT_STRATA);
+    }
+
+    /**
+     * Mutates codons of all records of {@code genome}.
+     *
+     * @throws IllegalArgumentException if the genome has more than {@link Integer#MAX_VALUE} codons
+     */
+    public RealisticMutationExperiment(GenomeStore genome, int strata) {
+        if (strata <= 0) {
+            throw new IllegalArgumentException("Strata must be positive");
         }
-        return result;
+        if (genome.getCodonCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Genome has too many codons: " + genome.getCodonCount());
+        }
+        this.genome = genome;
+        this.codonCount = (int) genome.getCodonCount();
+        this.strata = Math.max(1, Math.min(strata, codonCount));
+    }
+
+    /**
+     * Classifies every single-base substitution of every codon: entry {@code (codon * 3 + position) * 4
+     * + base} is the type of the mutation that puts {@code base} at {@code position}.
+     */
+    private static MutationType[] buildOutcomeTable(Map<String, String> codonTable) {
+        MutationType[] table = new MutationType[64 * 3 * 4];
+        for (int codon = 0; codon < 64; codon++) {
+            String original = decode(codon);
+            String originalAA = codonTable.get(original);
+            for (int p = 0; p < 3; p++) {
+                for (int base = 0; base < 4; base++) {
+                    char[] mutated = original.toCharArray();
+                    mutated[p] = BASES.charAt(base);
+                    String mutatedAA = codonTable.get(new String(mutated));
+                    MutationType type;
+                    if (mutatedAA.equals("*")) {
+                        type = MutationType.NONSENSE;
+                    } else if (!mutatedAA.equals(originalAA)) {
+                        type = MutationType.MISSENSE;
+                    } else {
+                        type = MutationType.SILENT;
+                    }
+                    table[(codon * 3 + p) * 4 + base] = type;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static String decode(int codon) {
+        return new String(new char[]{
+                BASES.charAt(codon >> 4 & 3), BASES.charAt(codon >> 2 & 3), BASES.charAt(codon & 3)});
     }
 
 
@@ -85,53 +164,138 @@ public class RealisticMutationExperiment implements MonteCarloExperiment<Mutatio
 
 
 
-    private static char biasedMutation(char original, SplittableRandom rnd) {
-        double r = rnd.nextDouble();
-        return switch (original) {
-            case 'A' -> r < 0.50 ? 'G' : r < 0.75 ? 'U' : 'C';
-            case 'C' -> r < 0.70 ? 'U' : r < 0.85 ? 'A' : 'G';
-            case 'G' -> r < 0.45 ? 'A' : r < 0.75 ? 'U' : 'C';
-            case 'U' -> r < 0.45 ? 'C' : r < 0.75 ? 'A' : 'G';
-            default  -> "ACGU".charAt(rnd.nextInt(4));
-        };
-    }
     @Override
     public MutationType runTrial(SplittableRandom rnd) {
-        int codonIndex = rnd.nextInt(codons.size());
-        String originalCodon = codons.get(codonIndex);
+        return mutate(genome.codonAt(rnd.nextInt(codonCount)), rnd);
+    }
+
+    @Override
+    public int getStrataCount() {
+        return strata;
+    }
+
+    @Override
+    public double getStratumWeight(int stratum) {
+        return (double) (stratumStart(stratum + 1) - stratumStart(stratum)) / codonCount;
+    }
+
+    @Override
+    public MutationType runTrial(int stratum, SplittableRandom rnd) {
+        int from = stratumStart(stratum);
+        return mutate(genome.codonAt(from + rnd.nextInt(stratumStart(stratum + 1) - from)), rnd);
+    }
 
+    private int stratumStart(int stratum) {
+        return (int) ((long) stratum * codonCount / strata);
+    }
+
+    private MutationType mutate(int codon, SplittableRandom rnd) {
         while (true) {
-            char[] codon = originalCodon.toCharArray();
-            int mutateIndex = rnd.nextInt(3);
-            char originalBase = codon[mutateIndex];
-            char newBase = biasedMutation(originalBase, rnd);
-            if (newBase == originalBase) continue;
-            codon[mutateIndex] = newBase;
-            String mutatedCodon = new String(codon);
-
-            String originalAA = codonTable.get(originalCodon);
-            String mutatedAA = codonTable.get(mutatedCodon);
-
-            if (originalAA == null || mutatedAA == null) {
+            MutationType type = mutateOnce(codon, rnd);
+            if (type == null) {
                 return MutationType.SILENT;
             }
+            // Отбор: если мутация не выживает — пробуем другую мутацию
+            if (rnd.nextDouble() < survivalProbability(type)) return type;
+        }
+    }
 
-            MutationType type;
-            if (mutatedAA.equals("*")) {
-                type = MutationType.NONSENSE;
-            } else if (!mutatedAA.equals(originalAA)) {
-                type = MutationType.MISSENSE;
-            } else {
-                type = MutationType.SILENT;
+    /**
+     * Applies one point mutation to {@code codon} and classifies it, before selection.
+     * <p>
+     * Substitutions always change the base, so every draw yields a mutation. An ambiguous base is
+     * replaced by a uniformly drawn one after the same threshold draw as a known base.
+     *
+     * @return the mutation type, or {@code null} if the codon contains an ambiguous base
+     */
+    MutationType mutateOnce(int codon, SplittableRandom rnd) {
+        int position = rnd.nextInt(3);
+        double r = rnd.nextDouble();
+        if (codon >= AMBIGUOUS) {
+            if ((codon & 1 << position) != 0) {
+                rnd.nextInt(4);
             }
+            return null;
+        }
+        int base = codon >> (4 - 2 * position) & 3;
+        int[] substitutes = SUBSTITUTES[base];
+        int newBase = r < LOWER[base] ? substitutes[0] : r < UPPER[base] ? substitutes[1] : substitutes[2];
+        return OUTCOMES[(codon * 3 + position) * 4 + newBase];
+    }
 
-            // Отбор: если мутация не выживает — пробуем другую мутацию
-            double survivalProb = switch (type) {
-                case SILENT   -> 1.00;
-                case MISSENSE -> 0.55;
-                case NONSENSE -> 0.08;
-            };
-            if (rnd.nextDouble() < survivalProb) return type;
+    /**
+     * Exact outcome distribution of {@link #runTrial(SplittableRandom)}: the outcome distributions of
+     * the codons, weighted by how often each occurs in the genome.
+     */
+    @Override
+    public Map<MutationType, Double> getExactDistribution() {
+        long[] frequencies = new long[AMBIGUOUS + 1];
+        for (int i = 0; i < codonCount; i++) {
+            frequencies[Math.min(genome.codonAt(i), AMBIGUOUS)]++;
+        }
+        MutationType[] types = MutationType.values();
+        double[] probabilities = new double[types.length];
+        probabilities[MutationType.SILENT.ordinal()] = frequencies[AMBIGUOUS];
+        for (int codon = 0; codon < AMBIGUOUS; codon++) {
+            if (frequencies[codon] > 0) {
+                double[] distribution = outcomeDistribution(codon);
+                for (int t = 0; t < types.length; t++) {
+                    probabilities[t] += frequencies[codon] * distribution[t];
+                }
+            }
+        }
+        Map<MutationType, Double> result = new EnumMap<>(MutationType.class);
+        for (int t = 0; t < types.length; t++) {
+            result.put(types[t], probabilities[t] / codonCount);
         }
+        return result;
+    }
+
+    /**
+     * Outcome distribution of a trial on {@code codon}, indexed by {@link MutationType} ordinal.
+     * <p>
+     * If a single mutation attempt survives as type {@code t} with probability {@code a_t}, the
+     * retry loop ends in type {@code t} with probability {@code a_t / sum(a)}. Every {@code a_t} sums
+     * the 3 positions and 3 substitutions of the codon that yield type {@code t}.
+     */
+    private static double[] outcomeDistribution(int codon) {
+        double[] accepted = new double[MutationType.values().length];
+        double total = 0.0;
+        for (int position = 0; position < 3; position++) {
+            int base = codon >> (4 - 2 * position) & 3;
+            double[] substitution = {LOWER[base], UPPER[base] - LOWER[base], 1.0 - UPPER[base]};
+            for (int k = 0; k < 3; k++) {
+                MutationType type = OUTCOMES[(codon * 3 + position) * 4 + SUBSTITUTES[base][k]];
+                double a = substitution[k] / 3 * survivalProbability(type);
+                accepted[type.ordinal()] += a;
+                total += a;
+            }
+        }
+        for (int t = 0; t < accepted.length; t++) {
+            accepted[t] /= total;
+        }
+        return accepted;
+    }
+
+    /**
+     * Probability that a mutation of the given type survives selection.
+     */
+    static double survivalProbability(MutationType type) {
+        return switch (type) {
+            case SILENT   -> 1.00;
+            case MISSENSE -> 0.55;
+            case NONSENSE -> 0.08;
+        };
+    }
+
+    int codonCount() {
+        return codonCount;
+    }
+
+    /**
+     * Code of the codon at {@code index}; see {@link GenomeStore}.
+     */
+    int codonAt(int index) {
+        return genome.codonAt(index);
     }
 }
@@ -0,0 +1,68 @@
+package org.tclover.montecarlo.experiment;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.SplittableRandom;
+
+/**
+ * Vector API kernels for the batch paths of the simple experiments.
+ * <p>
+ * Random numbers are still drawn sequentially from the {@link SplittableRandom}, in the same order
+ * as the scalar trials, so both paths produce identical outcomes. Only the per-trial arithmetic is
+ * vectorized. Callers must check {@link VectorSupport#AVAILABLE} before touching this class.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Fills {@code out} with 1.0 for points inside the unit quarter-circle and 0.0 otherwise.
+     */
+    static void piHits(SplittableRandom rnd, double[] out, int length) {
+        int lanes = SPECIES.length();
+        double[] ys = new double[lanes];
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                out[i + lane] = rnd.nextDouble();
+                ys[lane] = rnd.nextDouble();
+            }
+            DoubleVector x = DoubleVector.fromArray(SPECIES, out, i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, ys, 0);
+            VectorMask<Double> inside = x.mul(x).add(y.mul(y)).compare(VectorOperators.LE, 1.0);
+            zero.blend(one, inside).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            double x = rnd.nextDouble();
+            double y = rnd.nextDouble();
+            out[i] = (x * x + y * y <= 1.0) ? 1.0 : 0.0;
+        }
+    }
+
+    /**
+     * Fills {@code out} with {@code true} for every uniform draw below {@code bias}.
+     */
+    static void coinFlips(SplittableRandom rnd, double bias, boolean[] out, int length) {
+        int lanes = SPECIES.length();
+        double[] draws = new double[lanes];
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                draws[lane] = rnd.nextDouble();
+            }
+            DoubleVector.fromArray(SPECIES, draws, 0)
+                    .compare(VectorOperators.LT, bias)
+                    .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = rnd.nextDouble() < bias;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.tclover.montecarlo.experiment;
+
+/**
+ * Detects whether the incubating Vector API can be used by the batch kernels in {@link VectorKernels}.
+ * <p>
+ * The module is only resolved when the JVM is started with {@code --add-modules jdk.incubator.vector}.
+ * Setting {@code -Dmontecarlo.vector=false} forces the scalar fallback.
+ * This class must not reference any Vector API type, so that it loads on every JVM.
+ */
+final class VectorSupport {
+    static final boolean AVAILABLE = Boolean.parseBoolean(System.getProperty("montecarlo.vector", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorSupport() {
+    }
+}
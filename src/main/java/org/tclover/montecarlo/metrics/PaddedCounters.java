@@ -0,0 +1,63 @@
+package org.tclover.montecarlo.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A table of {@code long} counters, one row per worker, laid out so that no two rows share a cache line.
+ * <p>
+ * Each row is padded to a multiple of 128 bytes, which also covers CPUs that prefetch cache lines in
+ * adjacent pairs, and the table has a padding row at each end so that neighbouring heap objects do not
+ * share a line with the first or last row. Workers update their own row without contending with the
+ * others, and readers sum rows without stopping them.
+ */
+public final class PaddedCounters {
+    private static final int LONGS_PER_STRIDE = 16;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] values;
+    private final int slots;
+    private final int fields;
+    private final int stride;
+
+    /**
+     * @param slots  number of rows, typically one per worker
+     * @param fields number of counters per row
+     */
+    public PaddedCounters(int slots, int fields) {
+        if (slots <= 0 || fields <= 0) {
+            throw new IllegalArgumentException("Slots and fields must be positive");
+        }
+        this.slots = slots;
+        this.fields = fields;
+        this.stride = (fields + LONGS_PER_STRIDE - 1) / LONGS_PER_STRIDE * LONGS_PER_STRIDE;
+        this.values = new long[(slots + 2) * stride];
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void add(int slot, int field, long delta) {
+        LONGS.getAndAdd(values, index(slot, field), delta);
+    }
+
+    public long get(int slot, int field) {
+        return (long) LONGS.getOpaque(values, index(slot, field));
+    }
+
+    public long sum(int field) {
+        long total = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            total += get(slot, field);
+        }
+        return total;
+    }
+
+    private int index(int slot, int field) {
+        if (field < 0 || field >= fields) {
+            throw new IndexOutOfBoundsException("Field " + field);
+        }
+        return (slot + 1) * stride + field;
+    }
+}
@@ -0,0 +1,78 @@
+package org.tclover.montecarlo.metrics;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runtime metrics of one simulation: per-worker throughput, chunk latency, time spent merging
+ * aggregators and heap allocation per trial.
+ */
+public final class SimulationMetrics {
+    private final List<WorkerMetrics> workers;
+    private final long elapsedNanos;
+    private final long combineNanos;
+
+    public SimulationMetrics(List<WorkerMetrics> workers, long elapsedNanos, long combineNanos) {
+        this.workers = List.copyOf(workers);
+        this.elapsedNanos = elapsedNanos;
+        this.combineNanos = combineNanos;
+    }
+
+    /**
+     * Metrics of every worker that ran at least one chunk.
+     */
+    public List<WorkerMetrics> getWorkers() {
+        return workers;
+    }
+
+    public long getTrials() {
+        return workers.stream().mapToLong(WorkerMetrics::getTrials).sum();
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Overall trials per second of wall-clock time.
+     */
+    public double getTrialsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : getTrials() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Total time spent merging chunk aggregators.
+     */
+    public Duration getCombineTime() {
+        return Duration.ofNanos(combineNanos);
+    }
+
+    public Duration getMeanChunkLatency() {
+        long chunks = workers.stream().mapToLong(WorkerMetrics::getChunks).sum();
+        long busy = workers.stream().mapToLong(w -> w.getBusyTime().toNanos()).sum();
+        return chunks == 0 ? Duration.ZERO : Duration.ofNanos(busy / chunks);
+    }
+
+    /**
+     * Heap bytes allocated per trial, or {@code NaN} if the JVM cannot measure thread allocation.
+     */
+    public double getBytesAllocatedPerTrial() {
+        long trials = getTrials();
+        if (trials == 0 || workers.stream().anyMatch(w -> w.getAllocatedBytes() < 0)) {
+            return Double.NaN;
+        }
+        return (double) workers.stream().mapToLong(WorkerMetrics::getAllocatedBytes).sum() / trials;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "%,d trials in %s (%,.0f trials/s), chunk latency %s, combine %s, %.1f B/trial",
+                getTrials(), getElapsed(), getTrialsPerSecond(), getMeanChunkLatency(), getCombineTime(),
+                getBytesAllocatedPerTrial()));
+        for (WorkerMetrics worker : workers) {
+            sb.append(System.lineSeparator()).append("  ").append(worker);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package org.tclover.montecarlo.metrics;
+
+/**
+ * Receives runtime metrics from a simulation.
+ * <p>
+ * Chunk and combine callbacks are invoked on engine worker threads and must be cheap and thread-safe.
+ */
+public interface SimulationMetricsListener {
+
+    /**
+     * Called after a worker finishes a chunk.
+     *
+     * @param allocatedBytes heap bytes the worker allocated while running the chunk, or -1 if unknown
+     */
+    default void onChunk(int worker, int chunk, long trials, long latencyNanos, long allocatedBytes) {
+    }
+
+    /**
+     * Called after the batch aggregators of the completed chunks have been merged into a result.
+     */
+    default void onCombine(int chunks, long nanos) {
+    }
+
+    /**
+     * Called once when the simulation completes or is stopped.
+     */
+    default void onComplete(SimulationMetrics metrics) {
+    }
+}
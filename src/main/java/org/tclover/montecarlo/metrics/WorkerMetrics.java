@@ -0,0 +1,69 @@
+package org.tclover.montecarlo.metrics;
+
+import java.time.Duration;
+
+/**
+ * Throughput of one engine worker within a simulation.
+ */
+public final class WorkerMetrics {
+    private final int worker;
+    private final long trials;
+    private final long chunks;
+    private final long busyNanos;
+    private final long allocatedBytes;
+
+    public WorkerMetrics(int worker, long trials, long chunks, long busyNanos, long allocatedBytes) {
+        this.worker = worker;
+        this.trials = trials;
+        this.chunks = chunks;
+        this.busyNanos = busyNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public int getWorker() {
+        return worker;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Time this worker spent running chunks of the simulation.
+     */
+    public Duration getBusyTime() {
+        return Duration.ofNanos(busyNanos);
+    }
+
+    /**
+     * Trials per second of busy time.
+     */
+    public double getTrialsPerSecond() {
+        return busyNanos == 0 ? 0.0 : trials * 1e9 / busyNanos;
+    }
+
+    public Duration getMeanChunkLatency() {
+        return chunks == 0 ? Duration.ZERO : Duration.ofNanos(busyNanos / chunks);
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Heap bytes allocated per trial, or {@code NaN} if the JVM cannot measure thread allocation.
+     */
+    public double getBytesAllocatedPerTrial() {
+        return allocatedBytes < 0 || trials == 0 ? Double.NaN : (double) allocatedBytes / trials;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Worker %d: %,d trials in %,d chunks, %,.0f trials/s, chunk latency %s, %.1f B/trial",
+                worker, trials, chunks, getTrialsPerSecond(), getMeanChunkLatency(), getBytesAllocatedPerTrial());
+    }
+}